@@ -0,0 +1,93 @@
+package com.navassist;
+
+import android.util.Size;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
+
+/**
+ * AnalysisProfile — How CameraX should deliver analysis frames for one mode.
+ *
+ *   targetSize  → resolution asked for (landscape, sensor orientation); CameraX
+ *                 picks the closest supported size, preferring higher
+ *   rgba        → RGBA_8888 output instead of YUV_420_888 (the pipeline then
+ *                 feeds ML Kit a Bitmap instead of the media image)
+ *   rotated     → CameraX rotates frames upright itself instead of ML Kit
+ *                 reading the rotation from the frame metadata
+ *
+ * The detectors run internally at a few hundred pixels, so the default
+ * profiles ask for just enough: VGA for objects and for locating text
+ * (small print is read from a high-resolution still, see
+ * TextCaptureController), and less for the haptic screen that only needs
+ * a direction. The variant lists exist for tuning — the metrics overlay can
+ * cycle through them and PipelineMetrics is reset per profile so the
+ * numbers are comparable.
+ */
+public final class AnalysisProfile {
+
+    public static final AnalysisProfile OBJECTS =
+        new AnalysisProfile("objects", new Size(640, 480), false, false);
+    public static final AnalysisProfile TEXT =
+        new AnalysisProfile("text", new Size(640, 480), false, false);
+    public static final AnalysisProfile DUAL_HAPTIC =
+        new AnalysisProfile("haptic", new Size(480, 360), false, false);
+
+    /** Per-mode choices, default first. */
+    public static final AnalysisProfile[] OBJECT_VARIANTS = {
+        OBJECTS,
+        new AnalysisProfile("objects-hd", new Size(1280, 720), false, false),
+        new AnalysisProfile("objects-rgba", new Size(640, 480), true, false),
+        new AnalysisProfile("objects-rot", new Size(640, 480), false, true),
+    };
+    public static final AnalysisProfile[] TEXT_VARIANTS = {
+        TEXT,
+        new AnalysisProfile("text-hd", new Size(1280, 720), false, false),
+        new AnalysisProfile("text-rgba", new Size(640, 480), true, false),
+    };
+    public static final AnalysisProfile[] DUAL_VARIANTS = {
+        DUAL_HAPTIC,
+        new AnalysisProfile("haptic-vga", new Size(640, 480), false, false),
+        new AnalysisProfile("haptic-rgba", new Size(480, 360), true, false),
+    };
+
+    public final String name;
+    public final Size targetSize;
+    public final boolean rgba;
+    public final boolean rotated;
+
+    public AnalysisProfile(String name, Size targetSize, boolean rgba, boolean rotated) {
+        this.name = name;
+        this.targetSize = targetSize;
+        this.rgba = rgba;
+        this.rotated = rotated;
+    }
+
+    public ImageAnalysis build() {
+        ResolutionSelector selector = new ResolutionSelector.Builder()
+            .setResolutionStrategy(new ResolutionStrategy(targetSize,
+                ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER))
+            .build();
+        return new ImageAnalysis.Builder()
+            .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
+            .setResolutionSelector(selector)
+            .setOutputImageFormat(rgba
+                ? ImageAnalysis.OUTPUT_IMAGE_FORMAT_RGBA_8888
+                : ImageAnalysis.OUTPUT_IMAGE_FORMAT_YUV_420_888)
+            .setOutputImageRotationEnabled(rotated)
+            .build();
+    }
+
+    /** The variant after this one in the list (wraps around). */
+    public static AnalysisProfile next(AnalysisProfile[] variants, AnalysisProfile current) {
+        for (int i = 0; i < variants.length; i++)
+            if (variants[i] == current) return variants[(i + 1) % variants.length];
+        return variants[0];
+    }
+
+    /** "objects 640x480 YUV" */
+    @Override
+    public String toString() {
+        return name + " " + targetSize.getWidth() + "x" + targetSize.getHeight()
+            + (rgba ? " RGBA" : " YUV") + (rotated ? " rotated" : "");
+    }
+}
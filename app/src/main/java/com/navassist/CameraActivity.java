@@ -3,10 +3,10 @@ package com.navassist;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.graphics.Rect;
 import android.os.*;
 import android.speech.*;
 import android.speech.tts.*;
+import android.text.TextUtils;
 import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
@@ -15,20 +15,12 @@ import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
-import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.label.ImageLabel;
-import com.google.mlkit.vision.label.ImageLabeler;
-import com.google.mlkit.vision.label.ImageLabeling;
-import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
-import com.google.mlkit.vision.objects.DetectedObject;
-import com.google.mlkit.vision.objects.ObjectDetection;
-import com.google.mlkit.vision.objects.ObjectDetector;
-import com.google.mlkit.vision.objects.defaults.ObjectDetectorOptions;
-import com.google.mlkit.vision.text.TextRecognition;
-import com.google.mlkit.vision.text.TextRecognizer;
-import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.google.mlkit.vision.text.Text;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.*;
-import java.util.concurrent.*;
 
 /**
  * CameraActivity — Object detection + Text scanner
@@ -45,6 +37,13 @@ import java.util.concurrent.*;
  *   Pass 2 → ImageLabeler    : get real NAME from 400+ class vocabulary
  *
  * Result: "Chair — on your left, nearby"  instead of  "Unknown Object"
+ *
+ * Both passes run inside the shared FramePipeline; this screen only picks the
+ * stages (objects+labels or text) and renders the fused FrameResult.
+ *
+ * TEXT MODE: the analysis stream only locates text; TextCaptureController
+ * reads it from a high-resolution still once the camera is steady, and
+ * TextReader queues the blocks in reading order, skipping ones already read.
  */
 public class CameraActivity extends AppCompatActivity implements TextToSpeech.OnInitListener {
 
@@ -53,22 +52,44 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
     private LinearLayout llResult;
     private Button btnToggle;
 
-    // ML Kit
-    private ObjectDetector objDet;   // bounding boxes only
-    private ImageLabeler labeler;    // REAL object names — 400+ classes
-    private TextRecognizer txtRec;
+    // ML Kit — shared frame engine
+    private FramePipeline pipeline;
+    private FramePipeline.Stage<?> objectStage;  // bounding boxes only
+    private FramePipeline.Stage<?> labelStage;   // REAL object names per box — 400+ classes
+    private FramePipeline.Stage<?> groundStage;  // steps / drop-offs, no model
+    private FramePipeline.TextStage textStage;     // low-res: only locates text
+    private TextCaptureController textCapture;     // reads it from a high-res still
+    private TextReader textReader;                 // streams new blocks to TTS
+    private DeviceConditions deviceConditions;
+
+    // CameraX — the analysis use case is rebuilt whenever the profile changes
+    private ProcessCameraProvider cameraProvider;
+    private ImageAnalysis analysis;
+    private AnalysisProfile profile = AnalysisProfile.OBJECTS;
+    private final ResultFormatter formatter = new ResultFormatter();  // analysis thread only
+
+    // One coalesced UI update per display frame
+    private ResultPresenter presenter;
+    private static final int SLOT_STATUS = 0, SLOT_NAME = 1, SLOT_POS = 2, SLOT_CONF = 3,
+                             SLOT_LABELS = 4, SLOT_RESULT = 5;
+
+    // Debug metrics overlay — long-press the status line; also in `adb shell dumpsys activity`
+    private TextView tvMetrics;
+    private FrameTiming currentTiming;  // analysis thread only
+    private final StringBuilder metricsText = new StringBuilder(512);
+    private static final long METRICS_REFRESH_MS = 1000;
+    private boolean recording = false;
+    private static final long FRAME_LOG_MAX_BYTES = 512L << 20;
 
     private TextToSpeech tts;
-    private ExecutorService exec;
     private Vibrator vib;
     private String mode;
     private boolean textMode = false;
-    private long lastSpeakTime = 0;
-    private String lastSpokenText = "";
-    private String currentDetection = "";
-
-    // Position from ObjectDetector to pair with labeler result
-    private volatile String pendingPosition = "straight ahead";
+    // What each frame announces; hazards jump the queue, routine results at
+    // most one per ROUTINE_COOLDOWN_MS (analysis thread only)
+    private AlertPolicy policy;
+    private static final long ROUTINE_COOLDOWN_MS = 2500;
+    private volatile String currentDetection = "";
 
     // Always-on voice inside camera
     private SpeechRecognizer camVoice;
@@ -83,7 +104,7 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
         mode = getIntent().getStringExtra(SplashActivity.EXTRA_MODE);
         vib  = (Vibrator) getSystemService(VIBRATOR_SERVICE);
         tts  = new TextToSpeech(this, this);
-        exec = Executors.newSingleThreadExecutor();
+        textReader = new TextReader(tts);
 
         preview      = findViewById(R.id.cam_preview);
         tvStatus     = findViewById(R.id.tv_scan_status);
@@ -93,18 +114,34 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
         tvAllLabels  = findViewById(R.id.tv_all_labels);
         llResult     = findViewById(R.id.ll_result);
         btnToggle    = findViewById(R.id.btn_toggle2);
+        tvMetrics    = findViewById(R.id.tv_metrics);
+        tvStatus.setOnLongClickListener(v -> { toggleMetrics(); return true; });
+        // Tuning: tap the metrics overlay to try the next analysis profile for this mode
+        tvMetrics.setOnClickListener(v -> bindAnalysis(AnalysisProfile.next(
+            textMode ? AnalysisProfile.TEXT_VARIANTS : AnalysisProfile.OBJECT_VARIANTS, profile)));
+        tvMetrics.setOnLongClickListener(v -> { toggleRecording(); return true; });
+
+        presenter = new ResultPresenter();
+        presenter.bindText(SLOT_STATUS, tvStatus);
+        presenter.bindText(SLOT_NAME, tvObjectName);
+        presenter.bindText(SLOT_POS, tvObjectPos);
+        presenter.bindText(SLOT_CONF, tvObjectConf);
+        if (tvAllLabels != null) presenter.bindText(SLOT_LABELS, tvAllLabels);
+        presenter.bindVisibility(SLOT_RESULT, llResult);
 
         findViewById(R.id.btn_back2).setOnClickListener(v -> finish());
         findViewById(R.id.btn_speak2).setOnClickListener(v ->
             speak(currentDetection.isEmpty() ? "Nothing detected yet" : currentDetection));
 
         btnToggle.setOnClickListener(v -> {
-            textMode = !textMode;
+            setTextMode(!textMode);
             btnToggle.setText(textMode ? "🔍 Objects" : "📝 Text");
-            tvObjectName.setText(textMode ? "TEXT MODE" : "SCANNING...");
-            tvObjectPos.setText(textMode ? "Point at signs or labels" : "Point camera at any object");
-            tvObjectConf.setText("");
-            if (tvAllLabels != null) tvAllLabels.setText("");
+            presenter.begin();
+            presenter.setText(SLOT_NAME, textMode ? "TEXT MODE" : "SCANNING...");
+            presenter.setText(SLOT_POS, textMode ? "Point at signs or labels" : "Point camera at any object");
+            presenter.setText(SLOT_CONF, "");
+            presenter.setText(SLOT_LABELS, "");
+            presenter.publish();
             speak(textMode ? "Text reading mode." : "Object detection mode.");
         });
 
@@ -118,20 +155,57 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
     }
 
     private void initMLKit() {
-        // ObjectDetector — we use ONLY its bounding box output, ignore the label
-        objDet = ObjectDetection.getClient(new ObjectDetectorOptions.Builder()
-            .setDetectorMode(ObjectDetectorOptions.STREAM_MODE)
-            .enableMultipleObjects()
-            .enableClassification()
-            .build());
-
-        // ImageLabeler — PRIMARY name source. Knows 400+ object types.
-        // Threshold 0.45 catches most objects without too many false positives.
-        labeler = ImageLabeling.getClient(new ImageLabelerOptions.Builder()
-            .setConfidenceThreshold(0.45f)
-            .build());
-
-        txtRec = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
+        // Shared, already warmed-up clients (ModelManager); released in onDestroy
+        ModelManager models = ModelManager.get(this);
+        models.acquire();
+        models.warmUp();
+        objectStage = new FramePipeline.ObjectStage(models.objectDetector());
+        labelStage  = new FramePipeline.RoiLabelStage(models.labeler(), models.labelRefreshMs());
+        textStage   = new FramePipeline.TextStage(models.textRecognizer());
+        groundStage = new FramePipeline.GroundStage(models.groundIntervalMs());
+
+        pipeline = new FramePipeline();
+        pipeline.setMaxInFlight(models.maxInFlight());
+        pipeline.addListener(this::onFrameResult);
+        policy = new AlertPolicy(new AlertScheduler(ROUTINE_COOLDOWN_MS), pipeline.scheduler(), ROUTINE_COOLDOWN_MS);
+        textCapture = new TextCaptureController(textStage.recognizer(), pipeline.executor(), this::onTextRead);
+        deviceConditions = new DeviceConditions(this, pipeline.scheduler());
+        setTextMode(textMode);
+    }
+
+    private void setTextMode(boolean on) {
+        textMode = on;
+        if (textMode) pipeline.setStages(textStage);
+        else          pipeline.setStages(objectStage, groundStage, labelStage);
+        textCapture.reset();
+        textReader.reset();
+        bindAnalysis(textMode ? AnalysisProfile.TEXT : AnalysisProfile.OBJECTS);
+        bindTextCapture();
+    }
+
+    /** ImageCapture is only bound while text mode needs it. */
+    private void bindTextCapture() {
+        if (cameraProvider == null) return;
+        boolean bound = cameraProvider.isBound(textCapture.useCase());
+        if (textMode && !bound)
+            cameraProvider.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, textCapture.useCase());
+        else if (!textMode && bound)
+            cameraProvider.unbind(textCapture.useCase());
+        textCapture.setBound(textMode);
+    }
+
+    /** Rebinds ImageAnalysis with this profile; before the camera starts it is only remembered. */
+    private void bindAnalysis(AnalysisProfile p) {
+        profile = p;
+        if (cameraProvider == null) return;
+        if (analysis != null) {
+            analysis.clearAnalyzer();
+            cameraProvider.unbind(analysis);
+        }
+        analysis = p.build();
+        analysis.setAnalyzer(pipeline.executor(), pipeline);
+        cameraProvider.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, analysis);
+        pipeline.setProfile(p);
     }
 
     private void startCamera() {
@@ -140,130 +214,227 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
                 ProcessCameraProvider provider = ProcessCameraProvider.getInstance(this).get();
                 Preview prev = new Preview.Builder().build();
                 prev.setSurfaceProvider(preview.getSurfaceProvider());
-                ImageAnalysis analysis = new ImageAnalysis.Builder()
-                    .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST).build();
-                analysis.setAnalyzer(exec, this::analyzeFrame);
+                analysis = profile.build();
+                analysis.setAnalyzer(pipeline.executor(), pipeline);
                 provider.unbindAll();
                 provider.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, prev, analysis);
-                runOnUiThread(() -> tvStatus.setText("🟢 LIVE — Scanning"));
+                cameraProvider = provider;
+                pipeline.setProfile(profile);
+                bindTextCapture();
+                showStatus("🟢 LIVE — Scanning");
             } catch (Exception e) {
-                runOnUiThread(() -> tvStatus.setText("❌ Camera error: " + e.getMessage()));
+                showStatus("❌ Camera error: " + e.getMessage());
             }
         }, ContextCompat.getMainExecutor(this));
     }
 
-    @androidx.camera.core.ExperimentalGetImage
-    private void analyzeFrame(ImageProxy proxy) {
-        if (proxy.getImage() == null) { proxy.close(); return; }
-        InputImage image = InputImage.fromMediaImage(
-            proxy.getImage(), proxy.getImageInfo().getRotationDegrees());
-
+    // Runs on the pipeline's analysis thread once every stage has finished
+    private void onFrameResult(FrameResult r) {
+        boolean full = r.decision == FrameScheduler.Decision.FULL;
         if (textMode) {
-            txtRec.process(image)
-                .addOnSuccessListener(result -> {
-                    String text = result.getText().trim();
-                    if (!text.isEmpty()) {
-                        String display = text.length() > 100 ? text.substring(0, 100) + "..." : text;
-                        showResult("📝 " + display, "Text detected", "OCR", text, 4000);
-                    } else {
-                        runOnUiThread(() -> {
-                            tvObjectName.setText("No text found");
-                            tvObjectPos.setText("Point at a sign or label");
-                        });
-                    }
-                })
-                .addOnCompleteListener(t -> proxy.close());
+            // The low-res pass only finds text; onTextRead gets the high-res read
+            if (!full || r.text == null) return;
+            currentTiming = r.timing;
+            boolean reading = textCapture.onPreviewText(r.text, r.width, r.height);
+            presenter.begin();
+            if (r.text.getTextBlocks().isEmpty()) {
+                presenter.setText(SLOT_NAME, "No text found");
+                presenter.setText(SLOT_POS, "Point at a sign or label");
+            } else if (reading) {
+                presenter.setText(SLOT_STATUS, "📝 Text in view — hold steady");
+            }
+            presenter.publish();
             return;
         }
 
-        // ── OBJECT MODE: Two-pass detection ───────────────────────────────────
-        // Pass 1: ObjectDetector → bounding box → position string
-        // Pass 2: ImageLabeler  → real object name from 400+ classes
-        int imgW = proxy.getWidth(), imgH = proxy.getHeight();
-
-        objDet.process(image)
-            .addOnSuccessListener(objects -> {
-                // Extract position from the primary (largest/first) bounding box
-                if (!objects.isEmpty()) {
-                    Rect box = objects.get(0).getBoundingBox();
-                    pendingPosition = getPosition(box, imgW, imgH);
-                } else {
-                    pendingPosition = "straight ahead";
-                }
-            })
-            .addOnCompleteListener(objTask -> {
-                // Pass 2: ImageLabeler — always runs, gives us the real name
-                labeler.process(image)
-                    .addOnSuccessListener(labels -> {
-                        if (labels == null || labels.isEmpty()) {
-                            runOnUiThread(() -> {
-                                tvObjectName.setText("Scanning...");
-                                tvObjectPos.setText("Move camera slowly");
-                                tvStatus.setText("🟡 Looking...");
-                                if (tvAllLabels != null) tvAllLabels.setText("");
-                            });
-                            return;
-                        }
-
-                        // Sort labels by confidence — best first
-                        labels.sort((a, b) -> Float.compare(b.getConfidence(), a.getConfidence()));
-
-                        ImageLabel best = labels.get(0);
-                        String primaryName = best.getText();
-                        int primaryConf = (int)(best.getConfidence() * 100);
-                        String pos = pendingPosition;
-
-                        // Build secondary labels line (up to 4 more)
-                        StringBuilder sb = new StringBuilder();
-                        int extra = Math.min(labels.size(), 5);
-                        for (int i = 1; i < extra; i++) {
-                            if (sb.length() > 0) sb.append("  •  ");
-                            sb.append(labels.get(i).getText())
-                              .append(" ")
-                              .append((int)(labels.get(i).getConfidence() * 100))
-                              .append("%");
-                        }
-
-                        runOnUiThread(() -> {
-                            if (tvAllLabels != null) tvAllLabels.setText(sb.toString());
-                            tvStatus.setText("🟢 " + labels.size() + " object" + (labels.size() > 1 ? "s" : "") + " identified");
-                        });
-
-                        showResult(primaryName, pos, primaryConf + "% confidence",
-                                   primaryName + ", " + pos, 2500);
-                    })
-                    .addOnCompleteListener(t -> proxy.close());
-            });
+        // The ground check also runs on detector-only frames; AlertPolicy
+        // picks the one thing this frame announces
+        int choice = policy.choose(full, r.ground, null, r.tracks, r.scene, full ? bestLabel(r.labels) : null);
+        if (choice != AlertPolicy.NOTHING) currentTiming = r.timing;
+        switch (choice) {
+            case AlertPolicy.GROUND:
+                onGround(r.ground);
+                break;
+            case AlertPolicy.TRACK:
+                showTrackedObjects(r.tracks, policy.track());
+                break;
+            case AlertPolicy.LABEL:
+                showLabels(r.labels, r.scene, policy.box());
+                break;
+            case AlertPolicy.SCANNING:
+                presenter.begin();
+                presenter.setText(SLOT_NAME, "Scanning...");
+                presenter.setText(SLOT_POS, "Move camera slowly");
+                presenter.setText(SLOT_STATUS, "🟡 Looking...");
+                presenter.setText(SLOT_LABELS, "");
+                presenter.publish();
+                break;
+        }
     }
 
-    private void showResult(String name, String pos, String conf, String spoken, long cooldown) {
-        currentDetection = spoken;
-        runOnUiThread(() -> {
-            tvObjectName.setText(name);
-            tvObjectPos.setText("📍 " + pos);
-            tvObjectConf.setText(conf);
-            llResult.setVisibility(View.VISIBLE);
-        });
-        long now = System.currentTimeMillis();
-        if (now - lastSpeakTime > cooldown && !spoken.equals(lastSpokenText)) {
-            lastSpeakTime = now;
-            lastSpokenText = spoken;
-            speak(spoken);
+    // ── OBJECT MODE: Two-pass detection ───────────────────────────────────────
+    // Pass 1: ObjectDetector → bounding boxes → position strings
+    // Pass 2: ImageLabeler  → real name for each box (whole frame if no boxes)
+
+    // No stable track yet: the whole-frame labels, placed by the most
+    // important (closest / hazard) bounding box p, or straight ahead
+    private void showLabels(List<ImageLabel> labels, SceneModel scene, int p) {
+        String pos = p >= 0 ? scene.describe(p) : "straight ahead";
+
+        // Best label plus up to 4 more — partial top-k, no sort, no garbage
+        formatter.clear();
+        for (int i = 0; i < labels.size(); i++) {
+            ImageLabel l = labels.get(i);
+            formatter.add(l.getText(), l.getConfidence());
+        }
+        formatter.selectTop(5);
+        String primaryName = formatter.name(0);
+        String secondary = formatter.secondaryLine(1);
+
+        presenter.begin();
+        presenter.setText(SLOT_LABELS, secondary);
+        presenter.setText(SLOT_STATUS, formatter.statusText(labels.size()));
+        String spoken = formatter.spoken(primaryName, pos);
+        showResult(primaryName, pos, ResultFormatter.confidenceText(formatter.percent(0)), spoken);
+        announce(primaryName, spoken);
+    }
+
+    // Each box was labeled on its own crop, so name and position always match;
+    // the tracker smooths both and remembers what was already announced
+    private void showTrackedObjects(ObjectTracker tracks, int primary) {
+        String primaryName = tracks.label[primary];
+        String pos = tracks.describe(primary);
+
+        // Other stable labeled objects for the secondary line
+        formatter.clear();
+        for (int i = 0; i < tracks.count; i++) {
+            if (i == primary || tracks.label[i] == null || !tracks.isStable(i)) continue;
+            formatter.add(tracks.label[i], tracks.confidence[i]);
+        }
+        formatter.selectTop(4);
+        String secondary = formatter.secondaryLine(0);
+
+        presenter.begin();
+        presenter.setText(SLOT_LABELS, secondary);
+        presenter.setText(SLOT_STATUS, formatter.statusText(formatter.size() + 1));
+        int primaryConf = ResultFormatter.percentOf(tracks.confidence[primary]);
+        String spoken = tracks.approaching(primary) ? formatter.approaching(primaryName, pos)
+                                                    : formatter.spoken(primaryName, pos);
+        showResult(primaryName, pos, ResultFormatter.confidenceText(primaryConf), spoken);
+        announce(primaryName, spoken);
+    }
+
+    // Step or drop-off ahead (GroundStage) — always the hazard lane
+    private void onGround(GroundAnalyzer.Finding ground) {
+        String pos = ground.position();
+        String spoken = formatter.spoken(ground.name(), pos);
+        presenter.begin();
+        presenter.setText(SLOT_STATUS, "⚠️ Ground check");
+        showResult("⚠️ " + ground.name(), pos, "", spoken);
+        announce(ground.name(), spoken);
+    }
+
+    // Most confident whole-frame label, or null
+    private static String bestLabel(List<ImageLabel> labels) {
+        ImageLabel best = null;
+        for (ImageLabel l : labels) if (best == null || l.getConfidence() > best.getConfidence()) best = l;
+        return best != null ? best.getText() : null;
+    }
+
+    // Runs on the analysis thread with each high-resolution read; blocks are
+    // streamed to TTS in reading order and only the ones not read yet are queued
+    private void onTextRead(Text text) {
+        if (!textMode || text.getTextBlocks().isEmpty()) return;
+        List<String> blocks = textReader.order(text);
+        int queued = SplashActivity.MODE_DEAF.equals(mode) ? 0 : textReader.speakNew(blocks);
+        String all = TextUtils.join("\n", blocks);
+        int n = blocks.size();
+
+        presenter.begin();
+        presenter.setText(SLOT_LABELS, all);
+        presenter.setText(SLOT_STATUS, "🟢 Text read");
+        // Speech is already queued by the reader; this only updates the card
+        showResult("📝 " + blocks.get(0), "Text detected",
+                   "OCR  •  " + queued + " new of " + n + " block" + (n > 1 ? "s" : ""), all);
+        if (queued > 0) {
             vibrate();
+            pipeline.metrics().onAnnounced(currentTiming, System.nanoTime());
         }
     }
 
-    private String getPosition(Rect box, int w, int h) {
-        float cx = box.centerX() / (float) w;
-        float area = (float)(box.width() * box.height()) / (w * h);
-        String side = cx < 0.30f ? "on your left"
-                    : cx > 0.70f ? "on your right"
-                    : "straight ahead";
-        String dist = area > 0.30f ? "very close"
-                    : area > 0.10f ? "nearby"
-                    : area > 0.03f ? "a few meters away"
-                    : "far away";
-        return side + ", " + dist;
+    // Completes and publishes the snapshot the caller opened with presenter.begin()
+    private void showResult(String name, String pos, String conf, String spoken) {
+        currentDetection = spoken;
+        presenter.setText(SLOT_NAME, name);
+        presenter.setText(SLOT_POS, formatter.pinned(pos));
+        presenter.setText(SLOT_CONF, conf);
+        presenter.setVisibility(SLOT_RESULT, View.VISIBLE);
+        presenter.publish();
+    }
+
+    /**
+     * Speaks this frame's AlertPolicy choice when the policy lets it. A hazard
+     * (policy.level() > 0) is prefixed "Caution.", cuts off routine speech and
+     * is offered even when not fresh (the scheduler spaces repeats).
+     */
+    private void announce(String key, String spoken) {
+        long now = SystemClock.elapsedRealtime();
+        boolean hazard = policy.level() > 0;
+        String said = hazard ? formatter.caution(spoken) : spoken;
+        int verdict = policy.offer(key, said, AlertScheduler.speechMs(said), now);
+        if (verdict == AlertScheduler.SUPPRESS) return;
+        if (verdict == AlertScheduler.PREEMPT && vib != null) vib.cancel();
+        speak(said);   // QUEUE_FLUSH cuts off what is playing
+        vibrate();
+        pipeline.metrics().onAnnounced(currentTiming, System.nanoTime(), hazard);
+    }
+
+    private void showStatus(String status) {
+        presenter.begin();
+        presenter.setText(SLOT_STATUS, status);
+        presenter.publish();
+    }
+
+    // ── Metrics overlay ───────────────────────────────────────────────────────
+
+    private void toggleMetrics() {
+        boolean show = tvMetrics.getVisibility() != View.VISIBLE;
+        tvMetrics.setVisibility(show ? View.VISIBLE : View.GONE);
+        handler.removeCallbacks(metricsTicker);
+        if (show) metricsTicker.run();
+    }
+
+    // Frame log for off-device replay (FrameReplayer) — long-press the metrics overlay;
+    // adb pull /sdcard/Android/data/<package>/files/framelogs
+    private void toggleRecording() {
+        recording = !recording;
+        if (recording) {
+            File dir = getExternalFilesDir("framelogs");
+            if (dir == null) dir = getFilesDir();
+            pipeline.startRecording(new File(dir, "frames-" + System.currentTimeMillis() + ".navlog"),
+                                    FRAME_LOG_MAX_BYTES);
+            showStatus("⏺ Recording frames");
+        } else {
+            pipeline.stopRecording();
+            showStatus("⏹ Frame log saved");
+        }
+    }
+
+    private final Runnable metricsTicker = new Runnable() {
+        @Override public void run() {
+            metricsText.setLength(0);
+            pipeline.metrics().report(metricsText);
+            tvMetrics.setText(metricsText);
+            handler.postDelayed(this, METRICS_REFRESH_MS);
+        }
+    };
+
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.print(prefix);
+        writer.println("FramePipeline metrics:");
+        writer.print(pipeline.metrics());
     }
 
     public void speak(String t) {
@@ -327,9 +498,9 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
             speak("Closing camera.");
             finish();
         } else if (cmd.contains("text") || cmd.contains("read")) {
-            if (!textMode) { textMode = true; speak("Text mode."); }
+            if (!textMode) { setTextMode(true); speak("Text mode."); }
         } else if (cmd.contains("object") || cmd.contains("scan")) {
-            if (textMode) { textMode = false; speak("Object mode."); }
+            if (textMode) { setTextMode(false); speak("Object mode."); }
         } else if (cmd.contains("what") || cmd.contains("repeat")) {
             speak(currentDetection.isEmpty() ? "Nothing detected yet." : currentDetection);
         }
@@ -342,11 +513,13 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
 
     @Override protected void onPause() {
         super.onPause();
+        deviceConditions.stop();
         if (camVoice != null) camVoice.stopListening();
     }
 
     @Override protected void onResume() {
         super.onResume();
+        deviceConditions.start();
         if (camVoiceOn) handler.postDelayed(() -> loopCamVoice(), 500);
     }
 
@@ -354,7 +527,10 @@ public class CameraActivity extends AppCompatActivity implements TextToSpeech.On
         camVoiceOn = false;
         handler.removeCallbacksAndMessages(null);
         if (camVoice != null) camVoice.destroy();
-        exec.shutdown();
+        textCapture.cancel();
+        pipeline.shutdown();
+        ModelManager.get(this).release();
+        presenter.stop();
         if (tts != null) { tts.stop(); tts.shutdown(); }
         super.onDestroy();
     }
@@ -0,0 +1,65 @@
+package com.navassist;
+
+import android.content.*;
+import android.os.*;
+
+/**
+ * DeviceConditions — Feeds thermal and battery state into a FrameScheduler.
+ *
+ * A hot or nearly flat phone analyses fewer frames per second instead of
+ * throttling itself (or dying) halfway through a walk.
+ *   Thermal  → PowerManager thermal status (Android 10+)
+ *   Battery  → ≤ 20 % and not charging, or battery saver switched on
+ *
+ * start() in onResume, stop() in onPause.
+ */
+public class DeviceConditions {
+
+    private static final int LOW_BATTERY_PERCENT = 20;
+
+    private final Context ctx;
+    private final FrameScheduler scheduler;
+    private final PowerManager pm;
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+    private boolean registered = false;
+
+    private final BroadcastReceiver batteryReceiver = new BroadcastReceiver() {
+        @Override public void onReceive(Context c, Intent i) {
+            int level  = i.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale  = i.getIntExtra(BatteryManager.EXTRA_SCALE, 100);
+            int status = i.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+            boolean charging = status == BatteryManager.BATTERY_STATUS_CHARGING
+                            || status == BatteryManager.BATTERY_STATUS_FULL;
+            boolean low = level >= 0 && level * 100 / scale <= LOW_BATTERY_PERCENT && !charging;
+            scheduler.setBatteryLow(low || (pm != null && pm.isPowerSaveMode()));
+        }
+    };
+
+    public DeviceConditions(Context ctx, FrameScheduler scheduler) {
+        this.ctx = ctx.getApplicationContext();
+        this.scheduler = scheduler;
+        this.pm = (PowerManager) ctx.getSystemService(Context.POWER_SERVICE);
+    }
+
+    public void start() {
+        if (registered) return;
+        registered = true;
+        // Sticky broadcast — delivers the current state immediately
+        ctx.registerReceiver(batteryReceiver, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (pm != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            thermalListener = scheduler::setThermalStatus;
+            pm.addThermalStatusListener(thermalListener);
+            scheduler.setThermalStatus(pm.getCurrentThermalStatus());
+        }
+    }
+
+    public void stop() {
+        if (!registered) return;
+        registered = false;
+        ctx.unregisterReceiver(batteryReceiver);
+        if (thermalListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            pm.removeThermalStatusListener(thermalListener);
+            thermalListener = null;
+        }
+    }
+}
@@ -3,9 +3,9 @@ package com.navassist;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.graphics.Rect;
 import android.os.*;
 import android.speech.*;
+import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.camera.core.*;
@@ -13,17 +13,11 @@ import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
-import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.label.ImageLabel;
-import com.google.mlkit.vision.label.ImageLabeler;
-import com.google.mlkit.vision.label.ImageLabeling;
-import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
-import com.google.mlkit.vision.objects.DetectedObject;
-import com.google.mlkit.vision.objects.ObjectDetection;
-import com.google.mlkit.vision.objects.ObjectDetector;
-import com.google.mlkit.vision.objects.defaults.ObjectDetectorOptions;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.*;
-import java.util.concurrent.*;
 
 /**
  * DualCameraActivity — Camera scanner for Dual-Disability users
@@ -34,6 +28,7 @@ import java.util.concurrent.*;
  * DETECTION FIX — Two-pass per frame:
  *   Pass 1 → ObjectDetector  : bounding box → screen POSITION (left/right/front)
  *   Pass 2 → ImageLabeler    : real object NAME from 400+ classes
+ * Both passes run in the shared FramePipeline (same engine as CameraActivity).
  *
  * Haptic direction codes:
  *   1 pulse  = object on RIGHT
@@ -49,31 +44,35 @@ public class DualCameraActivity extends AppCompatActivity {
     private TextView tvStatus, tvObjectName, tvObjectPos, tvHapticCode, tvHapticMeaning, tvSecondary;
 
     // ── ML Kit ────────────────────────────────────────────────────────────────
-    private ObjectDetector objDet;   // bounding boxes → position only
-    private ImageLabeler labeler;    // REAL names — 400+ classes
-    private ExecutorService exec;
+    private FramePipeline pipeline;  // ObjectDetector (position) + ImageLabeler (name)
+    private DeviceConditions deviceConditions;
+
+    // CameraX — the analysis use case is rebuilt whenever the profile changes
+    private ProcessCameraProvider cameraProvider;
+    private ImageAnalysis analysis;
+    private AnalysisProfile profile = AnalysisProfile.DUAL_HAPTIC;
+    private final ResultFormatter formatter = new ResultFormatter();  // analysis thread only
+
+    // One coalesced UI update per display frame
+    private ResultPresenter presenter;
+    private static final int SLOT_STATUS = 0, SLOT_NAME = 1, SLOT_POS = 2, SLOT_SECONDARY = 3,
+                             SLOT_HAPTIC_CODE = 4, SLOT_HAPTIC_MEANING = 5;
+
+    // Debug metrics overlay — long-press the status line; also in `adb shell dumpsys activity`
+    private TextView tvMetrics;
+    private FrameTiming currentTiming;  // analysis thread only
+    private final StringBuilder metricsText = new StringBuilder(512);
+    private static final long METRICS_REFRESH_MS = 1000;
+    private boolean recording = false;
+    private static final long FRAME_LOG_MAX_BYTES = 512L << 20;
 
     // ── Haptic ────────────────────────────────────────────────────────────────
     private HapticEngine haptic;
-    private String lastHapticDir = "";
-    private String lastObjectName = "";
-    private long lastDirectionHapticTime = 0;
-    private long lastHazardHapticTime = 0;
     private static final long DIR_COOLDOWN    = 2500;
-    private static final long HAZARD_INTERVAL = 5000;
-
-    // Pending position from ObjectDetector
-    private volatile String pendingDir = HapticEngine.DIR_FRONT;
-
-    // ── Hazard vocabulary ─────────────────────────────────────────────────────
-    private static final Set<String> HAZARDS = new HashSet<>(Arrays.asList(
-        "hole","gap","crack","step","stairs","staircase","curb","kerb","slope","ramp",
-        "obstacle","barrier","wall","fence","pole","pillar","column","door","gate",
-        "car","vehicle","motorcycle","bicycle","truck","bus","scooter","wheel",
-        "person","human","crowd","dog","cat","animal","bird",
-        "puddle","water","mud","rock","stone","pit","ditch","drain","manhole",
-        "construction","cone","traffic cone","bump","speed bump","cable","wire"
-    ));
+    // What each frame pulses (analysis thread only). Hazard lane: no cooldown,
+    // cuts off direction pulses. A direction pulse holds the scheduler off for
+    // DIR_COOLDOWN and otherwise only waits while a hazard is playing.
+    private AlertPolicy policy;
 
     // ── Voice control ─────────────────────────────────────────────────────────
     private SpeechRecognizer camVoice;
@@ -81,8 +80,8 @@ public class DualCameraActivity extends AppCompatActivity {
     private Handler handler = new Handler(Looper.getMainLooper());
 
     // Current detection
-    private String currentObjectName = "";
-    private String currentDir = HapticEngine.DIR_FRONT;
+    private volatile String currentObjectName = "";
+    private volatile String currentDir = HapticEngine.DIR_FRONT;
 
     @Override
     protected void onCreate(Bundle s) {
@@ -90,7 +89,6 @@ public class DualCameraActivity extends AppCompatActivity {
         setContentView(R.layout.activity_dual_camera);
 
         haptic = new HapticEngine(this);
-        exec   = Executors.newSingleThreadExecutor();
 
         preview         = findViewById(R.id.dcam_preview);
         tvStatus        = findViewById(R.id.tv_dcam_status);
@@ -99,11 +97,27 @@ public class DualCameraActivity extends AppCompatActivity {
         tvHapticCode    = findViewById(R.id.tv_dcam_haptic_code);
         tvHapticMeaning = findViewById(R.id.tv_dcam_haptic_meaning);
         tvSecondary     = findViewById(R.id.tv_dcam_secondary);
+        tvMetrics       = findViewById(R.id.tv_dcam_metrics);
+        tvStatus.setOnLongClickListener(v -> { toggleMetrics(); return true; });
+        // Tuning: tap the metrics overlay to try the next analysis profile
+        tvMetrics.setOnClickListener(v ->
+            bindAnalysis(AnalysisProfile.next(AnalysisProfile.DUAL_VARIANTS, profile)));
+        tvMetrics.setOnLongClickListener(v -> { toggleRecording(); return true; });
+
+        presenter = new ResultPresenter();
+        presenter.bindText(SLOT_STATUS, tvStatus);
+        presenter.bindText(SLOT_NAME, tvObjectName);
+        presenter.bindText(SLOT_POS, tvObjectPos);
+        if (tvSecondary != null) presenter.bindText(SLOT_SECONDARY, tvSecondary);
+        presenter.bindText(SLOT_HAPTIC_CODE, tvHapticCode);
+        presenter.bindText(SLOT_HAPTIC_MEANING, tvHapticMeaning);
 
         findViewById(R.id.btn_dcam_back).setOnClickListener(v -> finish());
         findViewById(R.id.btn_dcam_rehaptic).setOnClickListener(v -> {
             haptic.direction(currentDir);
-            updateHapticUI(currentDir, currentObjectName, isHazard(currentObjectName));
+            presenter.begin();
+            setHapticUI(currentDir, currentObjectName, isHazard(currentObjectName));
+            presenter.publish();
         });
 
         initMLKit();
@@ -122,17 +136,27 @@ public class DualCameraActivity extends AppCompatActivity {
 
     private void initMLKit() {
         // ObjectDetector — used ONLY to get bounding box positions
-        // Its label output is ignored because it only knows 5 broad categories
-        objDet = ObjectDetection.getClient(new ObjectDetectorOptions.Builder()
-            .setDetectorMode(ObjectDetectorOptions.STREAM_MODE)
-            .enableMultipleObjects()
-            .enableClassification()
-            .build());
-
-        // ImageLabeler — 400+ real object categories, used as name source
-        labeler = ImageLabeling.getClient(new ImageLabelerOptions.Builder()
-            .setConfidenceThreshold(0.45f)
-            .build());
+        // ImageLabeler   — 400+ real object categories, run on each box's crop
+        // Clients come from ModelManager, shared with CameraActivity and warmed up early
+        ModelManager models = ModelManager.get(this);
+        models.acquire();
+        models.warmUp();
+        pipeline = new FramePipeline();
+        pipeline.setMaxInFlight(models.maxInFlight());
+        FramePipeline.Stage<?> objects = new FramePipeline.ObjectStage(models.objectDetector());
+        FramePipeline.Stage<?> labels = new FramePipeline.RoiLabelStage(models.labeler(), models.labelRefreshMs());
+        // Steps and drop-offs straight from the Y plane, no model needed
+        FramePipeline.Stage<?> ground = new FramePipeline.GroundStage(models.groundIntervalMs());
+        if (models.hazardModel() != null) {
+            // Dedicated curb / hole / stairs model, on its own cadence
+            pipeline.setStages(objects, ground,
+                new FramePipeline.HazardStage(models.hazardModel(), models.hazardIntervalMs()), labels);
+        } else {
+            pipeline.setStages(objects, ground, labels);
+        }
+        pipeline.addListener(this::onFrameResult);
+        policy = new AlertPolicy(new AlertScheduler(0), pipeline.scheduler(), DIR_COOLDOWN);
+        deviceConditions = new DeviceConditions(this, pipeline.scheduler());
     }
 
     // ── Camera ────────────────────────────────────────────────────────────────
@@ -143,121 +167,187 @@ public class DualCameraActivity extends AppCompatActivity {
                 ProcessCameraProvider prov = ProcessCameraProvider.getInstance(this).get();
                 Preview prev = new Preview.Builder().build();
                 prev.setSurfaceProvider(preview.getSurfaceProvider());
-                ImageAnalysis analysis = new ImageAnalysis.Builder()
-                    .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST).build();
-                analysis.setAnalyzer(exec, this::analyzeFrame);
+                analysis = profile.build();
+                analysis.setAnalyzer(pipeline.executor(), pipeline);
                 prov.unbindAll();
                 prov.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, prev, analysis);
-                runOnUiThread(() -> tvStatus.setText("🟢 SCANNING — Haptics active"));
+                cameraProvider = prov;
+                pipeline.setProfile(profile);
+                showStatus("🟢 SCANNING — Haptics active");
             } catch (Exception e) {
-                runOnUiThread(() -> tvStatus.setText("❌ Camera error"));
+                showStatus("❌ Camera error");
                 haptic.error();
             }
         }, ContextCompat.getMainExecutor(this));
     }
 
+    /** Rebinds ImageAnalysis with this profile (camera already started). */
+    private void bindAnalysis(AnalysisProfile p) {
+        profile = p;
+        if (cameraProvider == null) return;
+        if (analysis != null) {
+            analysis.clearAnalyzer();
+            cameraProvider.unbind(analysis);
+        }
+        analysis = p.build();
+        analysis.setAnalyzer(pipeline.executor(), pipeline);
+        cameraProvider.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, analysis);
+        pipeline.setProfile(p);
+    }
+
     // ── Frame Analysis ────────────────────────────────────────────────────────
 
-    @androidx.camera.core.ExperimentalGetImage
-    private void analyzeFrame(ImageProxy proxy) {
-        if (proxy.getImage() == null) { proxy.close(); return; }
-        InputImage img = InputImage.fromMediaImage(
-            proxy.getImage(), proxy.getImageInfo().getRotationDegrees());
-        int W = proxy.getWidth(), H = proxy.getHeight();
-
-        // Pass 1: ObjectDetector → extract direction from bounding box
-        objDet.process(img)
-            .addOnSuccessListener(objects -> {
-                if (!objects.isEmpty()) {
-                    Rect box = objects.get(0).getBoundingBox();
-                    float cx = box.centerX() / (float) W;
-                    pendingDir = directionOf(cx);
-                } else {
-                    pendingDir = HapticEngine.DIR_FRONT;
-                }
-            })
-            .addOnCompleteListener(objTask -> {
-                // Pass 2: ImageLabeler → real object name from 400+ classes
-                labeler.process(img)
-                    .addOnSuccessListener(labels -> {
-                        if (labels == null || labels.isEmpty()) {
-                            runOnUiThread(() -> {
-                                tvObjectName.setText("Scanning...");
-                                tvObjectPos.setText("Move camera slowly");
-                                if (tvSecondary != null) tvSecondary.setText("");
-                            });
-                            return;
-                        }
-
-                        // Sort by confidence — best match first
-                        labels.sort((a, b) -> Float.compare(b.getConfidence(), a.getConfidence()));
-
-                        String primaryName = labels.get(0).getText();
-                        int primaryConf = (int)(labels.get(0).getConfidence() * 100);
-                        String dir = pendingDir;
-
-                        // Build secondary labels for display (up to 3 more)
-                        StringBuilder sb = new StringBuilder();
-                        int count = Math.min(labels.size(), 4);
-                        for (int i = 1; i < count; i++) {
-                            if (sb.length() > 0) sb.append("  •  ");
-                            sb.append(labels.get(i).getText())
-                              .append(" ")
-                              .append((int)(labels.get(i).getConfidence() * 100))
-                              .append("%");
-                        }
-
-                        runOnUiThread(() -> {
-                            if (tvSecondary != null) tvSecondary.setText(sb.toString());
-                            tvStatus.setText("🟢 " + labels.size() + " object" + (labels.size() > 1 ? "s" : "") + " identified");
-                        });
-
-                        dispatchHaptic(primaryName, dir, primaryConf);
-                    })
-                    .addOnCompleteListener(t -> proxy.close());
-            });
+    // Runs on the pipeline's analysis thread once both passes have finished
+    private void onFrameResult(FrameResult r) {
+        // The hazard model and the ground check also run on detector-only
+        // frames; AlertPolicy picks the one thing this frame pulses
+        boolean full = r.decision == FrameScheduler.Decision.FULL;
+        ImageLabel modelHazard = bestHazard(r.hazards);
+        int choice = policy.choose(full, r.ground, modelHazard != null ? modelHazard.getText() : null,
+                                   r.tracks, r.scene, full ? bestLabel(r.labels) : null);
+        if (choice != AlertPolicy.NOTHING) currentTiming = r.timing;
+        switch (choice) {
+            case AlertPolicy.GROUND:
+                onGround(r.ground);
+                break;
+            case AlertPolicy.MODEL:
+                onHazardModel(modelHazard);
+                break;
+            case AlertPolicy.TRACK:
+                showTrackedObjects(r.tracks, policy.track());
+                break;
+            case AlertPolicy.LABEL:
+                showLabels(r.labels, r.scene, policy.box());
+                break;
+            case AlertPolicy.SCANNING:
+                presenter.begin();
+                presenter.setText(SLOT_NAME, "Scanning...");
+                presenter.setText(SLOT_POS, "Move camera slowly");
+                presenter.setText(SLOT_SECONDARY, "");
+                presenter.publish();
+                break;
+        }
+    }
+
+    // No stable track yet: the whole-frame labels, pointing at the most
+    // important bounding box p, or to the front
+    private void showLabels(List<ImageLabel> labels, SceneModel scene, int p) {
+        String dir = p >= 0 ? HapticPatterns.directionOf(scene.side[p]) : HapticEngine.DIR_FRONT;
+
+        // Best match plus up to 3 more — partial top-k, no sort, no garbage
+        formatter.clear();
+        for (int i = 0; i < labels.size(); i++) {
+            ImageLabel l = labels.get(i);
+            formatter.add(l.getText(), l.getConfidence());
+        }
+        formatter.selectTop(4);
+        String primaryName = formatter.name(0);
+        String secondary = formatter.secondaryLine(1);
+
+        presenter.begin();
+        presenter.setText(SLOT_SECONDARY, secondary);
+        presenter.setText(SLOT_STATUS, formatter.statusText(labels.size()));
+        dispatchHaptic(primaryName, dir, formatter.percent(0));
+    }
+
+    // ROI mode — name and direction come from the same box; the tracker
+    // smooths them across frames and ranks hazards and the closest first
+    private void showTrackedObjects(ObjectTracker tracks, int primary) {
+        String primaryName = tracks.label[primary];
+        String dir = HapticPatterns.directionOf(tracks.side[primary]);
+
+        formatter.clear();
+        for (int i = 0; i < tracks.count; i++) {
+            if (i == primary || tracks.label[i] == null || !tracks.isStable(i)) continue;
+            formatter.add(tracks.label[i], tracks.confidence[i]);
+        }
+        formatter.selectTop(3);
+        String secondary = formatter.secondaryLine(0);
+
+        presenter.begin();
+        presenter.setText(SLOT_SECONDARY, secondary);
+        presenter.setText(SLOT_STATUS, formatter.statusText(formatter.size() + 1));
+        dispatchHaptic(primaryName, dir, ResultFormatter.percentOf(tracks.confidence[primary]));
+    }
+
+    // Custom hazard model: its own labels, independent of what the labeler named
+    private ImageLabel bestHazard(List<ImageLabel> hazards) {
+        ImageLabel best = null;
+        for (ImageLabel l : hazards)
+            if (isHazard(l.getText()) && (best == null || l.getConfidence() > best.getConfidence())) best = l;
+        return best;
+    }
+
+    // Most confident whole-frame label, or null
+    private static String bestLabel(List<ImageLabel> labels) {
+        ImageLabel best = null;
+        for (ImageLabel l : labels) if (best == null || l.getConfidence() > best.getConfidence()) best = l;
+        return best != null ? best.getText() : null;
+    }
+
+    private void onHazardModel(ImageLabel best) {
+        String name = best.getText();
+        if (policy.offer(name, name, HapticPatterns.hazardMs(), SystemClock.elapsedRealtime())
+                == AlertScheduler.SUPPRESS) return;
+        haptic.hazard();
+        pipeline.metrics().onAnnounced(currentTiming, System.nanoTime(), true);
+        presenter.begin();
+        presenter.setText(SLOT_STATUS, "⚠️ " + name.toUpperCase(Locale.ROOT) + " — 5-pulse warning");
+        presenter.publish();
+    }
+
+    // Step or drop-off ahead (GroundStage): hazard lane, pointing at the line's centre
+    private void onGround(GroundAnalyzer.Finding ground) {
+        String dir = HapticPatterns.directionOf(ground.side);
+        if (policy.offer(ground.name(), ground.name(), HapticPatterns.hazardMs(dir), SystemClock.elapsedRealtime())
+                == AlertScheduler.SUPPRESS) return;
+        haptic.hazard(dir);
+        pipeline.metrics().onAnnounced(currentTiming, System.nanoTime(), true);
+        presenter.begin();
+        setHapticUI(dir, ground.name(), true);
+        presenter.setText(SLOT_STATUS, "⚠️ " + ground.name().toUpperCase(Locale.ROOT) + " " + ground.position()
+            + " — 5-pulse warning");
+        presenter.publish();
     }
 
     // ── Haptic Dispatch ───────────────────────────────────────────────────────
 
+    // Completes and publishes the snapshot the caller opened with presenter.begin().
+    // policy.level() > 0 → hazard lane; a routine pulse needs a new object or
+    // direction (AlertPolicy.offer)
     private void dispatchHaptic(String name, String dir, int conf) {
-        long now = System.currentTimeMillis();
+        long now = SystemClock.elapsedRealtime();
         currentObjectName = name;
         currentDir = dir;
-
-        boolean isHazard  = isHazard(name);
-        boolean dirChanged = !dir.equals(lastHapticDir);
-        boolean newObject  = !name.equalsIgnoreCase(lastObjectName);
-        boolean cooldownExpired = (now - lastDirectionHapticTime) > DIR_COOLDOWN;
-
-        // ── Direction haptic ─────────────────────────────────────────────────
-        if (dirChanged || newObject || cooldownExpired) {
-            lastHapticDir = dir;
-            lastObjectName = name;
-            lastDirectionHapticTime = now;
+        String pos = positionLabel(dir);
+
+        if (policy.level() > 0) {
+            // ── Hazard lane: burst + direction in one waveform, no cooldown ──
+            if (policy.offer(name, formatter.spoken(name, pos), HapticPatterns.hazardMs(dir), now)
+                    != AlertScheduler.SUPPRESS) {
+                haptic.hazard(dir);   // replaces whatever pattern is still playing
+                pipeline.metrics().onAnnounced(currentTiming, System.nanoTime(), true);
+                setHapticUI(dir, name, true);
+                presenter.setText(SLOT_STATUS, "⚠️ HAZARD — 5-pulse warning repeating");
+            }
+        } else if (policy.offer(name, formatter.spoken(name, pos), HapticPatterns.directionMs(dir), now)
+                != AlertScheduler.SUPPRESS) {
+            // ── Direction haptic (routine lane) ──────────────────────────────
             haptic.direction(dir);
-            updateHapticUI(dir, name, isHazard);
-        }
-
-        // ── Hazard haptic every 5 seconds ────────────────────────────────────
-        if (isHazard && (now - lastHazardHapticTime) > HAZARD_INTERVAL) {
-            lastHazardHapticTime = now;
-            handler.postDelayed(() -> haptic.hazard(), 900);
-            runOnUiThread(() -> tvStatus.setText("⚠️ HAZARD — 5-pulse warning repeating"));
+            pipeline.metrics().onAnnounced(currentTiming, System.nanoTime());
+            setHapticUI(dir, name, false);
         }
 
         // Update screen labels
-        String posLabel = positionLabel(dir);
-        String confLabel = conf + "% confidence";
-        runOnUiThread(() -> {
-            tvObjectName.setText(name);
-            tvObjectPos.setText(posLabel + "  •  " + confLabel);
-        });
+        presenter.setText(SLOT_NAME, name);
+        presenter.setText(SLOT_POS, formatter.detail(pos, conf));
+        presenter.publish();
     }
 
     // ── Haptic UI Labels ──────────────────────────────────────────────────────
 
-    private void updateHapticUI(String dir, String name, boolean hazard) {
+    // Writes into the snapshot the caller opened with presenter.begin()
+    private void setHapticUI(String dir, String name, boolean hazard) {
         String code, meaning;
         switch (dir) {
             case HapticEngine.DIR_RIGHT:
@@ -269,21 +359,18 @@ public class DualCameraActivity extends AppCompatActivity {
             default:
                 code = "📳📳📳📳  4 PULSES"; meaning = "↑ FRONT"; break;
         }
-        String fullMeaning = meaning + "  —  " + name + (hazard ? "  ⚠️" : "");
-        runOnUiThread(() -> {
-            tvHapticCode.setText(code);
-            tvHapticMeaning.setText(fullMeaning);
-        });
+        presenter.setText(SLOT_HAPTIC_CODE, code);
+        presenter.setText(SLOT_HAPTIC_MEANING, meaning + "  —  " + name + (hazard ? "  ⚠️" : ""));
     }
 
-    // ── Helpers ───────────────────────────────────────────────────────────────
-
-    private String directionOf(float cx) {
-        if (cx < 0.30f) return HapticEngine.DIR_LEFT;
-        if (cx > 0.70f) return HapticEngine.DIR_RIGHT;
-        return HapticEngine.DIR_FRONT;
+    private void showStatus(String status) {
+        presenter.begin();
+        presenter.setText(SLOT_STATUS, status);
+        presenter.publish();
     }
 
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
     private String positionLabel(String dir) {
         switch (dir) {
             case HapticEngine.DIR_LEFT:  return "Your left";
@@ -294,10 +381,49 @@ public class DualCameraActivity extends AppCompatActivity {
     }
 
     private boolean isHazard(String label) {
-        if (label == null) return false;
-        String l = label.toLowerCase(Locale.ROOT);
-        for (String k : HAZARDS) if (l.contains(k)) return true;
-        return false;
+        return Hazards.isHazard(label);
+    }
+
+    // ── Metrics overlay ───────────────────────────────────────────────────────
+
+    private void toggleMetrics() {
+        boolean show = tvMetrics.getVisibility() != View.VISIBLE;
+        tvMetrics.setVisibility(show ? View.VISIBLE : View.GONE);
+        handler.removeCallbacks(metricsTicker);
+        if (show) metricsTicker.run();
+    }
+
+    // Frame log for off-device replay (FrameReplayer) — long-press the metrics overlay;
+    // adb pull /sdcard/Android/data/<package>/files/framelogs
+    private void toggleRecording() {
+        recording = !recording;
+        if (recording) {
+            File dir = getExternalFilesDir("framelogs");
+            if (dir == null) dir = getFilesDir();
+            pipeline.startRecording(new File(dir, "frames-" + System.currentTimeMillis() + ".navlog"),
+                                    FRAME_LOG_MAX_BYTES);
+            showStatus("⏺ Recording frames");
+        } else {
+            pipeline.stopRecording();
+            showStatus("⏹ Frame log saved");
+        }
+    }
+
+    private final Runnable metricsTicker = new Runnable() {
+        @Override public void run() {
+            metricsText.setLength(0);
+            pipeline.metrics().report(metricsText);
+            tvMetrics.setText(metricsText);
+            handler.postDelayed(this, METRICS_REFRESH_MS);
+        }
+    };
+
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.print(prefix);
+        writer.println("FramePipeline metrics:");
+        writer.print(pipeline.metrics());
     }
 
     // ── Voice Control ─────────────────────────────────────────────────────────
@@ -351,11 +477,13 @@ public class DualCameraActivity extends AppCompatActivity {
 
     @Override protected void onPause() {
         super.onPause();
+        deviceConditions.stop();
         if (camVoice != null) camVoice.stopListening();
     }
 
     @Override protected void onResume() {
         super.onResume();
+        deviceConditions.start();
         if (voiceActive) handler.postDelayed(() -> loopVoice(), 500);
     }
 
@@ -363,7 +491,9 @@ public class DualCameraActivity extends AppCompatActivity {
         voiceActive = false;
         handler.removeCallbacksAndMessages(null);
         if (camVoice != null) camVoice.destroy();
-        exec.shutdown();
+        pipeline.shutdown();
+        ModelManager.get(this).release();
+        presenter.stop();
         haptic.cancel();
         super.onDestroy();
     }
@@ -0,0 +1,900 @@
+package com.navassist;
+
+import android.graphics.Bitmap;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.camera.core.ExperimentalGetImage;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.ImageProxy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.label.ImageLabel;
+import com.google.mlkit.vision.label.ImageLabeler;
+import com.google.mlkit.vision.objects.DetectedObject;
+import com.google.mlkit.vision.objects.ObjectDetector;
+import com.google.mlkit.vision.text.Text;
+import com.google.mlkit.vision.text.TextRecognizer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * FramePipeline — Shared frame-analysis engine for CameraActivity and DualCameraActivity.
+ *
+ *   ImageProxy → InputImage → Stage 1 … Stage N → FrameResult → Listeners
+ *
+ * Stages are pluggable ML steps (ObjectStage, LabelStage, TextStage,
+ * HazardStage below, and GroundStage, which is plain CPU work on the Y plane).
+ * Each one starts an ML Kit task for the frame and then folds the task output
+ * into the FrameResult. ML stages only wrap clients handed in from
+ * ModelManager, which owns and closes them. Two execution modes:
+ *
+ *   PARALLEL (default) → every stage is submitted for the same InputImage at
+ *                        once and joined with Tasks.whenAllComplete, so frame
+ *                        latency ≈ the slowest model instead of their sum.
+ *   SEQUENTIAL         → stage N+1 starts when stage N completes.
+ *
+ * A stage that needsDetections() (RoiLabelStage) always waits for the stages
+ * before it, since it works on their boxes.
+ *
+ * Frames arrive as YUV_420_888 (ML Kit reads the media image directly) or,
+ * with an RGBA AnalysisProfile, as RGBA_8888 copied into a reused Bitmap.
+ *
+ * Before any ML work a SceneChangeDetector compares the Y plane with the last
+ * analysed frame, and the FrameScheduler decides whether the frame gets every
+ * stage (FULL), only detector stages (DETECT_ONLY) or is skipped outright.
+ * A FULL frame that the FrameQualityGate finds blurred or badly exposed is
+ * demoted to DETECT_ONLY: tracking keeps running, but the labeler and OCR are
+ * not paid to read a smeared frame, and the next frame is due a full pass.
+ * All of that lives in FrameTriage, which is pure Java.
+ *
+ * Frames in flight are bounded explicitly. Each admitted frame is copied into
+ * a pipeline-owned Slot (NV21, or an RGBA Bitmap) and its ImageProxy closed
+ * straight away, so CameraX keeps delivering while ML Kit works:
+ *
+ *   in flight < limit (setMaxInFlight, default 2) → stages start now
+ *   at the limit → the frame waits; a newer one replaces it (drop-oldest)
+ *   a full pass still in flight → a FULL frame is demoted to DETECT_ONLY,
+ *                                 so hazard detection is never stuck behind
+ *                                 OCR or labeling and only one full pass runs
+ *
+ * Frames may finish out of order (a detector-only frame overtakes a full
+ * pass), so results are delivered in capture order. The detections are then
+ * fused into the shared SceneModel and fed to the ObjectTracker, and every
+ * listener receives the result — on the analysis thread, so listeners post their
+ * own UI work. Every result carries a FrameTiming record, and every frame is
+ * counted and timed in PipelineMetrics (see metrics()).
+ *
+ * startRecording() writes every frame's luma and every delivered result to a
+ * FrameLog, so a reported problem can be replayed off-device (FrameReplayer)
+ * through the same FrameTriage, GroundAnalyzer and ObjectTracker.
+ *
+ * The activities only choose which stages are active and what to do with the
+ * result, so the hot path exists exactly once.
+ */
+public class FramePipeline implements ImageAnalysis.Analyzer {
+
+    /** One ML step: start a task for the frame, then merge its output into the result. */
+    public interface Stage<T> {
+        Task<T> run(Frame frame);
+        void collect(T value, FrameResult result);
+
+        default String name() {
+            return getClass().getSimpleName();
+        }
+
+        /** Detector stages still run in DETECT_ONLY frames so scene changes are noticed. */
+        default boolean isDetector() {
+            return false;
+        }
+
+        /** true → reads result.objects, so it only starts after the earlier stages finish. */
+        default boolean needsDetections() {
+            return false;
+        }
+
+        /**
+         * true → the last run() did no work and handed back a reused or empty
+         * result; its time is counted apart, not as a latency sample.
+         */
+        default boolean cached() {
+            return false;
+        }
+    }
+
+    /** Receives every finished frame. */
+    public interface Listener {
+        void onFrameResult(FrameResult result);
+    }
+
+    /** A frame travelling through the stages. */
+    public static final class Frame {
+        public final Slot slot;
+        public final InputImage image;
+        /** Sensor-orientation RGBA copy of the frame, or null for YUV frames. */
+        public final Bitmap bitmap;
+        public final FrameResult result;
+        final boolean runsDetector;
+        final Stage<?>[] active;
+        final boolean parallel;
+        boolean done;
+
+        Frame(Slot slot, InputImage image, Bitmap bitmap, FrameResult result, boolean runsDetector,
+              Stage<?>[] active, boolean parallel) {
+            this.slot = slot;
+            this.image = image;
+            this.bitmap = bitmap;
+            this.result = result;
+            this.runsDetector = runsDetector;
+            this.active = active;
+            this.parallel = parallel;
+        }
+    }
+
+    /**
+     * Sensor-orientation copy of one camera frame, reused once its frame has
+     * been delivered. YUV frames are copied to NV21; y / u / v are views into
+     * it laid out like the camera planes, so YuvCropper reads either.
+     */
+    public static final class Slot {
+        public final int index;
+        public int width, height;
+        public ByteBuffer y, u, v;   // Y stride = width; V/U interleaved, stride = width, pixel stride 2
+        byte[] nv21;
+        Bitmap rgba;
+        boolean busy;
+
+        Slot(int index) {
+            this.index = index;
+        }
+
+        InputImage copyYuv(ImageProxy proxy, int rotation) {
+            int w = proxy.getWidth() & ~1, h = proxy.getHeight() & ~1;
+            int size = YuvCropper.nv21Size(w, h);
+            if (nv21 == null || nv21.length != size) {
+                nv21 = new byte[size];
+                y = ByteBuffer.wrap(nv21, 0, w * h).slice();
+                v = ByteBuffer.wrap(nv21, w * h, size - w * h).slice();
+                u = ByteBuffer.wrap(nv21, w * h + 1, size - w * h - 1).slice();
+            }
+            width = w;
+            height = h;
+            ImageProxy.PlaneProxy[] p = proxy.getPlanes();
+            YuvCropper.cropNv21(p[0].getBuffer(), p[0].getRowStride(), p[0].getPixelStride(),
+                p[1].getBuffer(), p[2].getBuffer(), p[1].getRowStride(), p[1].getPixelStride(),
+                0, 0, w, h, nv21);
+            return InputImage.fromByteArray(nv21, w, h, rotation, InputImage.IMAGE_FORMAT_NV21);
+        }
+
+        // Tightly packed RGBA copies straight into the reused Bitmap; padded rows
+        // (rowStride > width * 4) fall back to CameraX's own conversion
+        Bitmap copyRgba(ImageProxy proxy) {
+            ImageProxy.PlaneProxy plane = proxy.getPlanes()[0];
+            width = proxy.getWidth();
+            height = proxy.getHeight();
+            if (plane.getRowStride() != width * 4) return proxy.toBitmap();
+            if (rgba == null || rgba.getWidth() != width || rgba.getHeight() != height)
+                rgba = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            ByteBuffer buf = plane.getBuffer();
+            buf.rewind();
+            rgba.copyPixelsFromBuffer(buf);
+            buf.rewind();
+            return rgba;
+        }
+    }
+
+    /** All active stages plus the detector-only subset, swapped as one unit. */
+    private static final class ActiveStages {
+        final Stage<?>[] all, detectors;
+
+        ActiveStages(Stage<?>[] all) {
+            this.all = all;
+            List<Stage<?>> d = new ArrayList<>();
+            for (Stage<?> s : all) if (s.isDetector()) d.add(s);
+            this.detectors = d.toArray(new Stage<?>[0]);
+        }
+    }
+
+    private static final String TAG = "FramePipeline";
+    private static final int TIMING_LOG_EVERY = 30;   // frames between logcat timing lines
+
+    /** Upper bound for setMaxInFlight(); one more slot holds the waiting frame. */
+    public static final int MAX_IN_FLIGHT = 3;
+    static final int SLOTS = MAX_IN_FLIGHT + 1;
+
+    private final ExecutorService exec = Executors.newSingleThreadExecutor();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final FrameTriage triage = new FrameTriage(metrics);
+    private final SceneModel scene = new SceneModel();
+    private final ObjectTracker tracker = new ObjectTracker();
+    private volatile boolean resetTracks = false;
+    private volatile ActiveStages stages = new ActiveStages(new Stage<?>[0]);
+    private volatile boolean parallel = true;
+    private volatile int maxInFlight = 2;
+    private int frameCount = 0;
+
+    // In-flight bookkeeping, touched only on the analysis thread
+    private final Slot[] slots = new Slot[SLOTS];
+    private final ArrayDeque<Frame> inFlight = new ArrayDeque<>(MAX_IN_FLIGHT);   // capture order
+    private Frame waiting;   // newest frame held back at the limit
+
+    // Frame log, analysis thread only
+    private FrameLog.Writer recorder;
+    private final String[] logLabels = new String[FrameLog.MAX_LABELS];
+    private final float[] logConfidences = new float[FrameLog.MAX_LABELS];
+
+    // Stage timing is stamped on whichever thread completes the ML Kit task
+    private static final Executor DIRECT = Runnable::run;
+
+    // Task callbacks land back on the analysis thread; once shut down, late
+    // callbacks are dropped instead of throwing on ML Kit's worker thread.
+    private final Executor callbacks = r -> {
+        try { exec.execute(r); } catch (RejectedExecutionException ignored) {}
+    };
+
+    /** Executor to hand to ImageAnalysis.setAnalyzer together with this pipeline. */
+    public Executor executor() {
+        return exec;
+    }
+
+    /** Replaces the active stages; takes effect from the next frame. */
+    public void setStages(Stage<?>... active) {
+        stages = new ActiveStages(active.clone());
+        triage.scheduler().reset();
+        resetTracks = true;
+    }
+
+    /** Frame scheduler — feed it cooldowns (holdOff) and device state. */
+    public FrameScheduler scheduler() {
+        return triage.scheduler();
+    }
+
+    /** Blur / exposure thresholds applied to FULL frames. */
+    public FrameQualityGate qualityGate() {
+        return triage.qualityGate();
+    }
+
+    /** Latency histograms and counters; report to onAnnounced() when output fires. */
+    public PipelineMetrics metrics() {
+        return metrics;
+    }
+
+    /** Labels metrics with the profile the analyzer is now bound with, starting them afresh. */
+    public void setProfile(AnalysisProfile profile) {
+        metrics.setProfile(profile.toString());
+        triage.scheduler().reset();
+    }
+
+    /** Frames whose stages may run at once, 1 … MAX_IN_FLIGHT; 1 → strictly one after another. */
+    public void setMaxInFlight(int n) {
+        maxInFlight = Math.max(1, Math.min(MAX_IN_FLIGHT, n));
+    }
+
+    /** true → submit all stages at once (default); false → chain them one after another. */
+    public void setParallel(boolean on) {
+        parallel = on;
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * Records every following frame and result to a new FrameLog at file,
+     * until stopRecording(), shutdown() or maxBytes.
+     */
+    public void startRecording(File file, long maxBytes) {
+        exec.execute(() -> {
+            closeRecorder();
+            try {
+                recorder = new FrameLog.Writer(file, maxBytes);
+                Log.i(TAG, "recording to " + file);
+            } catch (IOException e) {
+                Log.w(TAG, "cannot record to " + file, e);
+            }
+        });
+    }
+
+    public void stopRecording() {
+        exec.execute(this::closeRecorder);
+    }
+
+    public void shutdown() {
+        listeners.clear();
+        exec.execute(this::closeRecorder);
+        exec.shutdown();
+    }
+
+    // ── Frame entry point ────────────────────────────────────────────────────
+
+    @Override
+    @ExperimentalGetImage
+    public void analyze(@NonNull ImageProxy proxy) {
+        ActiveStages set = stages;
+        if (proxy.getImage() == null || set.all.length == 0) { proxy.close(); return; }
+
+        long start = System.nanoTime();
+        long sensorNanos = proxy.getImageInfo().getTimestamp();
+        long queued = queueNanos(sensorNanos, start);
+        metrics.onFrameReceived(sensorNanos, queued, start, proxy.getWidth(), proxy.getHeight());
+
+        // Y plane for YUV; for RGBA the pixel stride of 4 makes it sample the red channel
+        ImageProxy.PlaneProxy luma = proxy.getPlanes()[0];
+        long now = SystemClock.elapsedRealtime();
+        if (recorder != null) recordFrame(proxy, luma, sensorNanos, now);
+        // Hazards first: while a full pass is in flight, the next one keeps only the detectors
+        boolean busy = set.detectors.length > 0 && fullInFlight();
+        FrameScheduler.Decision decision = triage.decide(luma.getBuffer(), proxy.getWidth(), proxy.getHeight(),
+            luma.getRowStride(), luma.getPixelStride(), now, busy);
+        Stage<?>[] active = decision == FrameScheduler.Decision.FULL ? set.all : set.detectors;
+        if (decision == FrameScheduler.Decision.SKIP || active.length == 0) { proxy.close(); return; }
+
+        // At the limit the new frame waits; the one already waiting is older, so it goes
+        boolean wait = inFlight.size() >= maxInFlight;
+        boolean replaced = wait && waiting != null;
+        if (replaced) {
+            waiting.slot.busy = false;
+            waiting = null;
+        }
+        Slot slot = freeSlot();
+        if (slot == null) { proxy.close(); return; }   // limit lowered while frames are in flight
+        triage.accept();
+
+        // 0 when CameraX already rotated the frame (AnalysisProfile.rotated)
+        int rotation = proxy.getImageInfo().getRotationDegrees();
+        Bitmap bitmap = null;
+        InputImage image;
+        if (proxy.getFormat() == PixelFormat.RGBA_8888) {
+            bitmap = slot.copyRgba(proxy);
+            image = InputImage.fromBitmap(bitmap, rotation);
+        } else {
+            image = slot.copyYuv(proxy, rotation);
+        }
+        // ML Kit boxes are in upright coordinates, so the result uses upright dimensions
+        boolean turned = rotation == 90 || rotation == 270;
+        FrameResult result = new FrameResult(
+            turned ? proxy.getHeight() : proxy.getWidth(),
+            turned ? proxy.getWidth() : proxy.getHeight(),
+            rotation, proxy.getImageInfo().getTimestamp());
+
+        boolean par = parallel;
+        String[] names = new String[active.length];
+        for (int i = 0; i < active.length; i++) names[i] = active[i].name();
+        result.timing = new FrameTiming(par, start, names);
+        result.timing.queueNanos = queued;
+        result.decision = decision;
+        proxy.close();
+
+        Frame frame = new Frame(slot, image, bitmap, result, set.detectors.length > 0, active, par);
+        if (wait) {
+            waiting = frame;
+            metrics.onQueued(replaced);
+        } else {
+            start(frame);
+        }
+    }
+
+    private boolean fullInFlight() {
+        for (Frame f : inFlight) if (f.result.decision == FrameScheduler.Decision.FULL) return true;
+        return false;
+    }
+
+    private Slot freeSlot() {
+        for (int i = 0; i < SLOTS; i++) {
+            if (slots[i] == null) slots[i] = new Slot(i);
+            if (!slots[i].busy) {
+                slots[i].busy = true;
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    private void start(Frame frame) {
+        inFlight.addLast(frame);
+        metrics.onInFlight(inFlight.size(), maxInFlight);
+        runBatch(frame, frame.active, 0, frame.parallel);
+    }
+
+    /**
+     * Submits stages [from, end) together and joins them. In parallel mode a
+     * batch runs up to the next stage that needs earlier output; sequential
+     * mode uses batches of one.
+     */
+    private void runBatch(Frame frame, Stage<?>[] active, int from, boolean par) {
+        if (from == active.length) { finish(frame); return; }
+        int end = from + 1;
+        if (par) while (end < active.length && !active[end].needsDetections()) end++;
+
+        FrameTiming timing = frame.result.timing;
+        List<Task<?>> tasks = new ArrayList<>(end - from);
+        long submitted = System.nanoTime();
+        for (int i = from; i < end; i++) {
+            int index = i;
+            Task<?> task = active[i].run(frame);
+            if (active[i].cached()) timing.stageNanos[index] = FrameTiming.CACHED;
+            else task.addOnCompleteListener(DIRECT, t ->
+                timing.stageNanos[index] = System.nanoTime() - submitted);
+            tasks.add(task);
+        }
+        int next = end;
+        Tasks.whenAllComplete(tasks).addOnCompleteListener(callbacks, all -> {
+            // Collect in stage order; a failed stage leaves its field empty
+            for (int i = from; i < next; i++) {
+                Task<?> t = tasks.get(i - from);
+                if (t.isSuccessful()) collect(active[i], t.getResult(), frame.result);
+                else metrics.onStageFailed();
+            }
+            runBatch(frame, active, next, par);
+        });
+    }
+
+    // CameraX stamps frames with the sensor clock, which is elapsedRealtimeNanos
+    // on most devices and the monotonic clock on the rest; anything else is unknown
+    private static long queueNanos(long sensorNanos, long nowNanos) {
+        long q = SystemClock.elapsedRealtimeNanos() - sensorNanos;
+        if (q >= 0 && q < 1_000_000_000L) return q;
+        q = nowNanos - sensorNanos;
+        return q >= 0 && q < 1_000_000_000L ? q : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void collect(Stage<T> stage, Object value, FrameResult result) {
+        stage.collect((T) value, result);
+    }
+
+    private void finish(Frame frame) {
+        frame.result.timing.endNanos = System.nanoTime();
+        frame.done = true;
+        // Capture order: a frame that overtook an earlier one waits for it
+        while (!inFlight.isEmpty() && inFlight.peekFirst().done) deliver(inFlight.pollFirst());
+        if (waiting != null && inFlight.size() < maxInFlight) {
+            Frame next = waiting;
+            waiting = null;
+            start(next);
+        }
+    }
+
+    private void deliver(Frame frame) {
+        FrameTiming timing = frame.result.timing;
+        frame.slot.busy = false;
+        fillScene(frame.result);
+        if (resetTracks) { resetTracks = false; tracker.clear(); }
+        if (frame.runsDetector) {
+            tracker.update(scene);
+            triage.onScene(scene);
+        }
+        frame.result.tracks = tracker;
+        if (recorder != null) recordResult(frame);
+        metrics.onFrameFinished(timing);
+        if (++frameCount % TIMING_LOG_EVERY == 0) Log.d(TAG, timing.toString());
+        for (Listener l : listeners) l.onFrameResult(frame.result);
+    }
+
+    private void fillScene(FrameResult r) {
+        scene.begin(r.width, r.height, r.timestamp);
+        for (int i = 0; i < r.objects.size(); i++) {
+            DetectedObject o = r.objects.get(i);
+            Rect b = o.getBoundingBox();
+            Integer id = o.getTrackingId();
+            boolean named = i < r.objectNames.length;
+            scene.add(b.left, b.top, b.right, b.bottom,
+                id != null ? id : SceneModel.NO_TRACK,
+                named ? r.objectNames[i] : null, named ? r.objectConfidences[i] : 0f);
+        }
+        r.scene = scene;
+    }
+
+    // ── Frame log ────────────────────────────────────────────────────────────
+
+    private void recordFrame(ImageProxy proxy, ImageProxy.PlaneProxy luma, long sensorNanos, long now) {
+        try {
+            if (!recorder.frame(sensorNanos, now, proxy.getWidth(), proxy.getHeight(),
+                    proxy.getImageInfo().getRotationDegrees(), luma.getBuffer(), luma.getRowStride(),
+                    luma.getPixelStride())) {
+                Log.i(TAG, "frame log full");
+                closeRecorder();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "frame log failed", e);
+            closeRecorder();
+        }
+    }
+
+    private void recordResult(Frame frame) {
+        FrameResult r = frame.result;
+        int n = Math.min(r.labels.size(), FrameLog.MAX_LABELS);
+        for (int i = 0; i < n; i++) {
+            ImageLabel l = r.labels.get(i);
+            logLabels[i] = l.getText();
+            logConfidences[i] = l.getConfidence();
+        }
+        try {
+            recorder.result(r.timestamp, SystemClock.elapsedRealtime(), r.decision.ordinal(), frame.runsDetector,
+                scene, r.ground, logLabels, logConfidences, n);
+        } catch (IOException e) {
+            Log.w(TAG, "frame log failed", e);
+            closeRecorder();
+        }
+    }
+
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+            Log.i(TAG, "frame log closed: " + recorder.frames() + " frames, " + recorder.bytes() + " bytes");
+        } catch (IOException e) {
+            Log.w(TAG, "frame log close failed", e);
+        }
+        recorder = null;
+    }
+
+    // ── Stages ───────────────────────────────────────────────────────────────
+
+    /**
+     * ObjectDetector — used ONLY for bounding boxes (screen position).
+     * Its own label output is ignored: it only knows 5 broad categories.
+     */
+    public static class ObjectStage implements Stage<List<DetectedObject>> {
+        private final ObjectDetector detector;
+
+        public ObjectStage(ObjectDetector detector) {
+            this.detector = detector;
+        }
+
+        @Override public boolean isDetector() {
+            return true;
+        }
+
+        @Override public Task<List<DetectedObject>> run(Frame frame) {
+            return detector.process(frame.image);
+        }
+
+        @Override public void collect(List<DetectedObject> objects, FrameResult result) {
+            result.objects = objects;
+        }
+    }
+
+    /**
+     * ImageLabeler — PRIMARY name source. Knows 400+ object types.
+     * Threshold 0.45 catches most objects without too many false positives.
+     */
+    public static class LabelStage implements Stage<List<ImageLabel>> {
+        private final ImageLabeler labeler;
+
+        public LabelStage(ImageLabeler labeler) {
+            this.labeler = labeler;
+        }
+
+        @Override public Task<List<ImageLabel>> run(Frame frame) {
+            return labeler.process(frame.image);
+        }
+
+        @Override public void collect(List<ImageLabel> labels, FrameResult result) {
+            if (labels != null) result.labels = labels;
+        }
+    }
+
+    /**
+     * Region-of-interest labeling — the ImageLabeler runs on each detected box
+     * (largest MAX_OBJECTS by area) instead of the whole frame, so every name
+     * is paired with the position of the object it actually describes.
+     *
+     * Labels are cached per ML Kit tracking ID (LabelCache): a tracked object
+     * labeled less than REFRESH_MS ago reuses its label and is not cropped
+     * at all, so on a steady scene the labeler only runs for new or stale tracks.
+     *
+     * Crops are cut from the frame's slot into NV21 buffers (RGBA frames:
+     * mutable bitmaps, reconfigured to each crop's size) owned by the stage,
+     * one set per slot, so frames in flight together never share a buffer.
+     * With no detections it falls back to labeling the whole frame.
+     */
+    public static class RoiLabelStage implements Stage<RoiLabelStage.Labels> {
+        public static final int MAX_OBJECTS = 3;
+        private static final int MIN_CROP = 32;         // px — smaller crops are not labeled
+        private static final float CROP_PADDING = 0.1f; // context around each box
+        private static final long REFRESH_MS = 2000;    // re-label a tracked object this often
+        private static final long LOST_MS = 1000;       // forget a tracking ID unseen this long
+
+        /** Name per object (aligned with result.objects) or whole-frame labels. */
+        public static final class Labels {
+            final String[] names;
+            final float[] confidences;
+            final int[] fromModel;     // object indices labeled by the model this frame
+            final int fromModelCount;
+            final List<ImageLabel> wholeFrame;
+
+            Labels(String[] names, float[] confidences, int[] fromModel, int fromModelCount,
+                   List<ImageLabel> wholeFrame) {
+                this.names = names;
+                this.confidences = confidences;
+                this.fromModel = fromModel;
+                this.fromModelCount = fromModelCount;
+                this.wholeFrame = wholeFrame;
+            }
+        }
+
+        private final ImageLabeler labeler;
+        private final LabelCache cache;
+        private final byte[][][] crops = new byte[SLOTS][MAX_OBJECTS][];
+        private final Bitmap[][] rgbaCrops = new Bitmap[SLOTS][MAX_OBJECTS];
+        private int[] pixels = new int[0];   // analysis thread only; copied out before the next crop
+        private final int[] rect = new int[4];
+        private final int[] picked = new int[MAX_OBJECTS];
+        private boolean servedFromCache;
+
+        public RoiLabelStage(ImageLabeler labeler) {
+            this(labeler, REFRESH_MS);
+        }
+
+        public RoiLabelStage(ImageLabeler labeler, long refreshMs) {
+            this.labeler = labeler;
+            this.cache = new LabelCache(ObjectTracker.MAX_TRACKS, refreshMs, LOST_MS);
+        }
+
+        @Override public boolean needsDetections() {
+            return true;
+        }
+
+        @Override public boolean cached() {
+            return servedFromCache;
+        }
+
+        @Override public Task<Labels> run(Frame frame) {
+            servedFromCache = false;
+            List<DetectedObject> objects = frame.result.objects;
+            if (objects.isEmpty()) return labelWholeFrame(frame);
+
+            // Mark every visible track as seen, then forget the ones that left
+            long now = SystemClock.elapsedRealtime();
+            for (DetectedObject o : objects) {
+                Integer id = o.getTrackingId();
+                if (id != null) cache.lookup(id, now);
+            }
+            cache.evictLost(now);
+
+            int n = pickLargest(objects);
+            Slot slot = frame.slot;
+            byte[][] buffers = crops[slot.index];
+            int rotation = frame.result.rotation;
+
+            String[] names = new String[objects.size()];
+            float[] confidences = new float[objects.size()];
+            List<Task<List<ImageLabel>>> tasks = new ArrayList<>(n);
+            int[] index = new int[n];
+            int count = 0, cached = 0;
+            for (int k = 0; k < n; k++) {
+                DetectedObject o = objects.get(picked[k]);
+                Integer id = o.getTrackingId();
+                int entry = id != null ? cache.lookup(id, now) : -1;
+                if (cache.isFresh(entry, now)) {
+                    names[picked[k]] = cache.label(entry);
+                    confidences[picked[k]] = cache.confidence(entry);
+                    cached++;
+                    continue;
+                }
+
+                Rect box = o.getBoundingBox();
+                YuvCropper.toSensorRect(box.left, box.top, box.right, box.bottom, rotation,
+                    slot.width, slot.height, CROP_PADDING, rect);
+                int w = rect[2], h = rect[3];
+                if (w < MIN_CROP || h < MIN_CROP) continue;
+
+                InputImage crop;
+                if (frame.bitmap != null) {
+                    crop = InputImage.fromBitmap(cropRgba(frame.bitmap, slot.index, count, w, h), rotation);
+                } else {
+                    int size = YuvCropper.nv21Size(w, h);
+                    if (buffers[count] == null || buffers[count].length < size) buffers[count] = new byte[size];
+                    YuvCropper.cropNv21(slot.y, slot.width, 1, slot.u, slot.v, slot.width, 2,
+                        rect[0], rect[1], w, h, buffers[count]);
+                    crop = InputImage.fromByteArray(buffers[count], w, h, rotation, InputImage.IMAGE_FORMAT_NV21);
+                }
+                tasks.add(labeler.process(crop));
+                index[count++] = picked[k];
+            }
+            if (count == 0) {
+                if (cached == 0) return labelWholeFrame(frame);
+                servedFromCache = true;
+                return Tasks.forResult(new Labels(names, confidences, index, 0, null));
+            }
+
+            int labeled = count;
+            return Tasks.whenAllComplete(tasks).continueWith(DIRECT, all -> {
+                for (int k = 0; k < labeled; k++) {
+                    Task<List<ImageLabel>> t = tasks.get(k);
+                    if (!t.isSuccessful()) continue;
+                    ImageLabel best = top(t.getResult());
+                    if (best == null) continue;
+                    names[index[k]] = best.getText();
+                    confidences[index[k]] = best.getConfidence();
+                }
+                return new Labels(names, confidences, index, labeled, null);
+            });
+        }
+
+        // Same growth rule as the NV21 buffers: a bitmap too small is replaced,
+        // a big enough one is reconfigured in place
+        private Bitmap cropRgba(Bitmap src, int slot, int k, int w, int h) {
+            Bitmap b = rgbaCrops[slot][k];
+            if (b == null || b.getAllocationByteCount() < w * h * 4) {
+                b = rgbaCrops[slot][k] = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            } else if (b.getWidth() != w || b.getHeight() != h) {
+                b.reconfigure(w, h, Bitmap.Config.ARGB_8888);
+            }
+            if (pixels.length < w * h) pixels = new int[w * h];
+            src.getPixels(pixels, 0, w, rect[0], rect[1], w, h);
+            b.setPixels(pixels, 0, w, 0, 0, w, h);
+            return b;
+        }
+
+        private Task<Labels> labelWholeFrame(Frame frame) {
+            return labeler.process(frame.image).continueWith(DIRECT, t ->
+                new Labels(new String[0], new float[0], new int[0], 0, t.getResult()));
+        }
+
+        @Override public void collect(Labels labels, FrameResult result) {
+            result.objectNames = labels.names;
+            result.objectConfidences = labels.confidences;
+            if (labels.wholeFrame != null) result.labels = labels.wholeFrame;
+
+            // Remember fresh model output, including "nothing recognised"
+            long now = SystemClock.elapsedRealtime();
+            for (int k = 0; k < labels.fromModelCount; k++) {
+                int i = labels.fromModel[k];
+                Integer id = result.objects.get(i).getTrackingId();
+                if (id != null) cache.put(id, labels.names[i], labels.confidences[i], now);
+            }
+        }
+
+        /** Fills picked[] with the indices of the largest boxes, biggest first. */
+        private int pickLargest(List<DetectedObject> objects) {
+            int n = Math.min(MAX_OBJECTS, objects.size());
+            long taken = 0;   // bitmask — ML Kit returns at most 5 objects
+            for (int k = 0; k < n; k++) {
+                int bestIdx = -1, bestArea = -1;
+                for (int i = 0; i < objects.size() && i < 64; i++) {
+                    if ((taken & (1L << i)) != 0) continue;
+                    Rect b = objects.get(i).getBoundingBox();
+                    int area = b.width() * b.height();
+                    if (area > bestArea) { bestArea = area; bestIdx = i; }
+                }
+                picked[k] = bestIdx;
+                taken |= 1L << bestIdx;
+            }
+            return n;
+        }
+
+        private static ImageLabel top(List<ImageLabel> labels) {
+            ImageLabel best = null;
+            if (labels != null)
+                for (ImageLabel l : labels)
+                    if (best == null || l.getConfidence() > best.getConfidence()) best = l;
+            return best;
+        }
+    }
+
+    /**
+     * Custom walking-hazard model (curbs, holes, stairs…) — a TFLite image
+     * classifier run through ML Kit's custom labeler on the whole frame.
+     *
+     * Counts as a detector, so it also runs in DETECT_ONLY frames, but on its
+     * own cadence: between model runs the last result is reused, so the
+     * model costs at most one CPU inference per intervalMs regardless of the
+     * camera frame rate or what the general labeler is doing.
+     */
+    public static class HazardStage implements Stage<List<ImageLabel>> {
+        private final ImageLabeler model;
+        private final long intervalMs;
+        private long lastRun = Long.MIN_VALUE / 2;
+        private volatile List<ImageLabel> last = Collections.emptyList();
+        private boolean servedFromCache;
+
+        public HazardStage(ImageLabeler model, long intervalMs) {
+            this.model = model;
+            this.intervalMs = intervalMs;
+        }
+
+        @Override public boolean isDetector() {
+            return true;
+        }
+
+        @Override public boolean cached() {
+            return servedFromCache;
+        }
+
+        @Override public Task<List<ImageLabel>> run(Frame frame) {
+            long now = SystemClock.elapsedRealtime();
+            servedFromCache = now - lastRun < intervalMs;
+            if (servedFromCache) return Tasks.forResult(last);
+            lastRun = now;
+            return model.process(frame.image);
+        }
+
+        @Override public void collect(List<ImageLabel> labels, FrameResult result) {
+            if (labels == null) return;
+            last = labels;
+            result.hazards = labels;
+        }
+    }
+
+    /**
+     * Steps and drop-offs in the walking path (GroundAnalyzer) — no model,
+     * just the lower part of the frame's Y plane at reduced resolution.
+     *
+     * A detector stage on its own cadence like HazardStage, but nothing is
+     * cached between runs: the user keeps walking, so a finding is only ever
+     * reported for the frame it was seen in. The analysis is a few thousand
+     * reads of the slot copy and runs inline on the analysis thread. RGBA
+     * frames carry no Y plane and are skipped.
+     */
+    public static class GroundStage implements Stage<GroundAnalyzer.Finding> {
+        private final GroundAnalyzer analyzer = new GroundAnalyzer();
+        private final long intervalMs;
+        private long lastRun = Long.MIN_VALUE / 2;
+        private boolean servedFromCache;
+
+        public GroundStage(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        @Override public boolean isDetector() {
+            return true;
+        }
+
+        @Override public boolean cached() {
+            return servedFromCache;
+        }
+
+        @Override public Task<GroundAnalyzer.Finding> run(Frame frame) {
+            long now = SystemClock.elapsedRealtime();
+            Slot slot = frame.slot;
+            servedFromCache = frame.bitmap != null || slot.y == null || now - lastRun < intervalMs;
+            if (servedFromCache) return Tasks.forResult(null);
+            lastRun = now;
+            int kind = analyzer.analyze(slot.y, slot.width, slot.height, slot.width, 1, frame.result.rotation);
+            return Tasks.forResult(kind == GroundAnalyzer.NONE ? null
+                : new GroundAnalyzer.Finding(kind, analyzer.side(), analyzer.distance()));
+        }
+
+        @Override public void collect(GroundAnalyzer.Finding finding, FrameResult result) {
+            result.ground = finding;
+        }
+    }
+
+    /** TextRecognizer — Latin script OCR for signs and labels. */
+    public static class TextStage implements Stage<Text> {
+        private final TextRecognizer recognizer;
+
+        public TextStage(TextRecognizer recognizer) {
+            this.recognizer = recognizer;
+        }
+
+        /** Shared with TextCaptureController, which reads high-resolution stills. */
+        public TextRecognizer recognizer() {
+            return recognizer;
+        }
+
+        @Override public Task<Text> run(Frame frame) {
+            return recognizer.process(frame.image);
+        }
+
+        @Override public void collect(Text text, FrameResult result) {
+            result.text = text;
+        }
+    }
+}
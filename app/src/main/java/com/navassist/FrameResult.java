@@ -0,0 +1,54 @@
+package com.navassist;
+
+import com.google.mlkit.vision.label.ImageLabel;
+import com.google.mlkit.vision.objects.DetectedObject;
+import com.google.mlkit.vision.text.Text;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FrameResult — Fused output of one analysed camera frame.
+ *
+ * Filled in by the FramePipeline stages:
+ *   objects → ObjectDetector bounding boxes
+ *   labels  → ImageLabeler names for the whole frame (400+ classes)
+ *   objectNames / objectConfidences → ImageLabeler name per detected box (ROI mode)
+ *   scene   → all of the above fused per object (see SceneModel)
+ *   tracks  → the same objects smoothed across frames (see ObjectTracker)
+ *   text    → TextRecognizer output
+ *   hazards → custom walking-hazard model labels for the whole frame
+ *             (HazardStage; refreshed on its own cadence, so possibly cached)
+ *   ground  → step or drop-off in the walking path (GroundStage), or null
+ *
+ * width / height are UPRIGHT dimensions (rotation already applied), the same
+ * space ML Kit reports boxes in.
+ *
+ * A field whose stage did not run (or failed) stays empty / null, so
+ * listeners can always read every field without null-checking lists.
+ * timing is always set and records how long each stage took; decision tells
+ * whether the scheduler ran every stage or only the detector (DETECT_ONLY).
+ */
+public class FrameResult {
+
+    public final int width, height, rotation;
+    public final long timestamp;
+
+    public List<DetectedObject> objects = Collections.emptyList();
+    public List<ImageLabel> labels = Collections.emptyList();
+    public String[] objectNames = new String[0];
+    public float[] objectConfidences = new float[0];
+    public SceneModel scene;
+    public ObjectTracker tracks;
+    public Text text;
+    public List<ImageLabel> hazards = Collections.emptyList();
+    public GroundAnalyzer.Finding ground;
+    public FrameTiming timing;
+    public FrameScheduler.Decision decision = FrameScheduler.Decision.FULL;
+
+    public FrameResult(int width, int height, int rotation, long timestamp) {
+        this.width = width;
+        this.height = height;
+        this.rotation = rotation;
+        this.timestamp = timestamp;
+    }
+}
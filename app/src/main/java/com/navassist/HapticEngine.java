@@ -14,18 +14,22 @@ import android.os.*;
  *
  * SPECIAL PATTERNS:
  *   SOS_CONFIRM  → SOS pattern (3-3-3 morse)
- *   HAZARD       → rapid 5-pulse danger burst
+ *   HAZARD       → rapid 5-pulse danger burst (optionally followed by the
+ *                  direction pulses in the same waveform)
  *   ARRIVED      → long-short-long success pattern
  *   CAMERA_OPEN  → gentle double tap
  *   NAV_START    → rising 3-pulse
  *   ERROR        → slow 2-pulse low amplitude
+ *
+ * The direction and hazard waveforms, and how long they last, come from
+ * HapticPatterns (pure Java, in :core).
  */
 public class HapticEngine {
 
-    public static final String DIR_RIGHT  = "right";
-    public static final String DIR_LEFT   = "left";
-    public static final String DIR_BACK   = "back";
-    public static final String DIR_FRONT  = "front";
+    public static final String DIR_RIGHT  = HapticPatterns.DIR_RIGHT;
+    public static final String DIR_LEFT   = HapticPatterns.DIR_LEFT;
+    public static final String DIR_BACK   = HapticPatterns.DIR_BACK;
+    public static final String DIR_FRONT  = HapticPatterns.DIR_FRONT;
 
     private final Vibrator vib;
 
@@ -34,28 +38,14 @@ public class HapticEngine {
     }
 
     // ── Core: N distinct countable pulses ─────────────────────────────────────
-    // Pulse: 100ms ON, 150ms OFF — clearly separable even for light users
     public void pulses(int count) {
-        if (vib == null || count <= 0) return;
-        // pattern: [delay, on, off, on, off, ...]
-        long[] p = new long[1 + count * 2];
-        p[0] = 0;
-        for (int i = 0; i < count; i++) {
-            p[1 + i * 2]     = 110;   // vibrate ON
-            p[2 + i * 2]     = 160;   // vibrate OFF
-        }
-        fire(p, -1);
+        if (count <= 0) return;
+        fire(HapticPatterns.pulses(count), -1);
     }
 
     // ── Direction haptics ─────────────────────────────────────────────────────
     public void direction(String dir) {
-        switch (dir) {
-            case DIR_RIGHT: pulses(1); break;
-            case DIR_LEFT:  pulses(2); break;
-            case DIR_BACK:  pulses(3); break;
-            case DIR_FRONT:
-            default:        pulses(4); break;
-        }
+        fire(HapticPatterns.direction(dir), -1);
     }
 
     // ── SOS confirmed (3-3-3 Morse) ──────────────────────────────────────────
@@ -73,8 +63,12 @@ public class HapticEngine {
 
     // ── Road hazard / gap (urgent 5-pulse rapid) ─────────────────────────────
     public void hazard() {
-        long[] p = {0, 80,60, 80,60, 80,60, 80,60, 80, 0};
-        fire(p, -1);
+        fire(HapticPatterns.hazard(), -1);
+    }
+
+    // Burst, pause, then where it is — one waveform, so no timer sits in between
+    public void hazard(String dir) {
+        fire(HapticPatterns.hazard(dir), -1);
     }
 
     // ── Camera opened (double tap) ────────────────────────────────────────────
@@ -0,0 +1,267 @@
+package com.navassist;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.common.model.LocalModel;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.label.ImageLabeler;
+import com.google.mlkit.vision.label.ImageLabeling;
+import com.google.mlkit.vision.label.custom.CustomImageLabelerOptions;
+import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
+import com.google.mlkit.vision.objects.ObjectDetection;
+import com.google.mlkit.vision.objects.ObjectDetector;
+import com.google.mlkit.vision.objects.defaults.ObjectDetectorOptions;
+import com.google.mlkit.vision.text.TextRecognition;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ModelManager — Process-wide, reference-counted pool of ML Kit clients.
+ *
+ * ML Kit loads a model on the first process() call, so without this the first
+ * frames after opening a camera screen took hundreds of milliseconds each,
+ * and every launch left a set of never-closed native clients behind.
+ *
+ *   get(ctx)   → the shared pool; clients are built for the device tier
+ *   acquire()  → in a camera screen's onCreate; opens the clients if needed
+ *   release()  → in its onDestroy; the last release starts an idle timer
+ *   warmUp()   → runs one blank frame through every client in the background;
+ *                call it while the splash / menu is on screen (repeat calls
+ *                are no-ops while the clients stay open)
+ * A bundled assets/hazards.txt replaces the built-in hazard vocabulary
+ * (format in HazardMatcher) when the pool is created.
+ *
+ *   clients    → objectDetector(), labeler(), textRecognizer(), and
+ *                hazardModel() when assets/hazards.tflite is bundled (null
+ *                otherwise); only valid between acquire() and release()
+ *
+ * Unused clients are close()d after IDLE_CLOSE_MS, so reopening a camera
+ * screen within that window is instant and repeated open / close cycles
+ * keep reusing one set of native clients instead of piling them up.
+ *
+ * Tier (RAM and core count) picks the options the bundled models allow:
+ *
+ *   LOW  → labels ≥ 0.55, tracked objects re-labeled every 4 s, 1 frame in
+ *          flight, hazard model every 600 ms, ground check every 400 ms
+ *   MID  → labels ≥ 0.45, every 2 s, 2 frames in flight, hazards every 300 ms,
+ *          ground every 250 ms
+ *   HIGH → labels ≥ 0.45, every 1 s, 3 frames in flight, hazards every 200 ms,
+ *          ground every 150 ms
+ *
+ * The detector never classifies (its 5 coarse categories are unused — names
+ * come from the labeler), which also makes it cheaper on every tier. The
+ * hazard model runs on ML Kit's CPU interpreter; it is a plain TFLite image
+ * classifier with label metadata, and only labels matching the Hazards
+ * vocabulary are acted on.
+ */
+public final class ModelManager {
+
+    public enum Tier { LOW, MID, HIGH }
+
+    private static final String TAG = "ModelManager";
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final int WARM_W = 320, WARM_H = 240;
+    private static final long IDLE_CLOSE_MS = 120_000;
+    private static final String HAZARD_MODEL = "hazards.tflite";
+    private static final String HAZARD_VOCABULARY = "hazards.txt";
+    private static final float HAZARD_CONFIDENCE = 0.6f;
+
+    private static ModelManager instance;
+
+    private final Context app;
+    private final Tier tier;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable closeIdle = this::closeIfIdle;
+    private ObjectDetector objectDetector;
+    private ImageLabeler labeler;
+    private TextRecognizer textRecognizer;
+    private ImageLabeler hazardModel;   // null when no model is bundled
+    private int refs;
+    private boolean warming;
+
+    public static synchronized ModelManager get(Context ctx) {
+        if (instance == null) instance = new ModelManager(ctx.getApplicationContext());
+        return instance;
+    }
+
+    private ModelManager(Context app) {
+        this.app = app;
+        this.tier = tierOf(app);
+        loadHazardVocabulary();
+    }
+
+    /** One more user of the clients; pair with release(). */
+    public synchronized void acquire() {
+        refs++;
+        handler.removeCallbacks(closeIdle);
+        open();
+    }
+
+    public synchronized void release() {
+        if (refs == 0) return;
+        if (--refs == 0) scheduleIdleClose();
+    }
+
+    private void open() {
+        if (objectDetector != null) return;
+        objectDetector = ObjectDetection.getClient(new ObjectDetectorOptions.Builder()
+            .setDetectorMode(ObjectDetectorOptions.STREAM_MODE)
+            .enableMultipleObjects()
+            .build());
+        labeler = ImageLabeling.getClient(new ImageLabelerOptions.Builder()
+            .setConfidenceThreshold(tier == Tier.LOW ? 0.55f : 0.45f)
+            .build());
+        textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
+        if (hasAsset(HAZARD_MODEL)) {
+            LocalModel model = new LocalModel.Builder().setAssetFilePath(HAZARD_MODEL).build();
+            hazardModel = ImageLabeling.getClient(new CustomImageLabelerOptions.Builder(model)
+                .setConfidenceThreshold(HAZARD_CONFIDENCE)
+                .setMaxResultCount(3)
+                .build());
+        }
+        Log.d(TAG, "opened, tier " + tier + (hazardModel != null ? ", hazard model" : ""));
+    }
+
+    /** Loads every model by running a blank frame through it; returns at once. */
+    public synchronized void warmUp() {
+        if (warming) return;
+        warming = true;
+        open();
+        if (refs == 0) scheduleIdleClose();
+        long start = SystemClock.elapsedRealtime();
+        Bitmap blank = Bitmap.createBitmap(WARM_W, WARM_H, Bitmap.Config.ARGB_8888);
+        blank.eraseColor(0xFF808080);
+        InputImage image = InputImage.fromBitmap(blank, 0);
+        List<Task<?>> tasks = new ArrayList<>(4);
+        tasks.add(objectDetector.process(image));
+        tasks.add(labeler.process(image));
+        tasks.add(textRecognizer.process(image));
+        if (hazardModel != null) tasks.add(hazardModel.process(image));
+        Tasks.whenAllComplete(tasks).addOnCompleteListener(all ->
+            Log.d(TAG, "warm-up " + (SystemClock.elapsedRealtime() - start) + " ms"));
+    }
+
+    private void scheduleIdleClose() {
+        handler.removeCallbacks(closeIdle);
+        handler.postDelayed(closeIdle, IDLE_CLOSE_MS);
+    }
+
+    private synchronized void closeIfIdle() {
+        if (refs > 0 || objectDetector == null) return;
+        objectDetector.close();
+        labeler.close();
+        textRecognizer.close();
+        if (hazardModel != null) hazardModel.close();
+        objectDetector = null;
+        labeler = null;
+        textRecognizer = null;
+        hazardModel = null;
+        warming = false;
+        Log.d(TAG, "closed after idle");
+    }
+
+    public Tier tier() {
+        return tier;
+    }
+
+    public synchronized ObjectDetector objectDetector() {
+        return objectDetector;
+    }
+
+    public synchronized ImageLabeler labeler() {
+        return labeler;
+    }
+
+    public synchronized TextRecognizer textRecognizer() {
+        return textRecognizer;
+    }
+
+    /** Custom walking-hazard classifier, or null when none is bundled. */
+    public synchronized ImageLabeler hazardModel() {
+        return hazardModel;
+    }
+
+    /** How often HazardStage runs the hazard model. */
+    public long hazardIntervalMs() {
+        switch (tier) {
+            case LOW:  return 600;
+            case HIGH: return 200;
+            default:   return 300;
+        }
+    }
+
+    /** How often GroundStage looks for steps and drop-offs. */
+    public long groundIntervalMs() {
+        switch (tier) {
+            case LOW:  return 400;
+            case HIGH: return 150;
+            default:   return 250;
+        }
+    }
+
+    /** How long RoiLabelStage trusts a tracked object's label. */
+    public long labelRefreshMs() {
+        switch (tier) {
+            case LOW:  return 4000;
+            case HIGH: return 1000;
+            default:   return 2000;
+        }
+    }
+
+    /** For FramePipeline.setMaxInFlight(). */
+    public int maxInFlight() {
+        switch (tier) {
+            case LOW:  return 1;
+            case HIGH: return 3;
+            default:   return 2;
+        }
+    }
+
+    private void loadHazardVocabulary() {
+        if (!hasAsset(HAZARD_VOCABULARY)) return;
+        try (InputStreamReader in = new InputStreamReader(
+                app.getAssets().open(HAZARD_VOCABULARY), StandardCharsets.UTF_8)) {
+            HazardMatcher vocabulary = HazardMatcher.parse(in);
+            Hazards.use(vocabulary);
+            Log.d(TAG, "hazard vocabulary: " + vocabulary.terms() + " terms");
+        } catch (IOException e) {
+            Log.w(TAG, HAZARD_VOCABULARY + " ignored: " + e.getMessage());
+        }
+    }
+
+    // Lists the asset's directory rather than opening it: nothing to close
+    private boolean hasAsset(String name) {
+        int slash = name.lastIndexOf('/');
+        try {
+            String[] files = app.getAssets().list(slash < 0 ? "" : name.substring(0, slash));
+            if (files == null) return false;
+            for (String file : files) if (file.equals(name.substring(slash + 1))) return true;
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Tier tierOf(Context ctx) {
+        ActivityManager am = (ActivityManager) ctx.getSystemService(Context.ACTIVITY_SERVICE);
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (am == null) return Tier.MID;
+        ActivityManager.MemoryInfo mem = new ActivityManager.MemoryInfo();
+        am.getMemoryInfo(mem);
+        if (am.isLowRamDevice() || mem.totalMem < 3 * GB || cores <= 4) return Tier.LOW;
+        if (mem.totalMem >= 6 * GB && cores >= 8) return Tier.HIGH;
+        return Tier.MID;
+    }
+}
@@ -93,12 +93,7 @@ public class PairingManager {
     // ─── SOS Message Builder ──────────────────────────────────────────────────
 
     public String buildSosMessage(double lat, double lng) {
-        String name = getUserName();
-        String link = "https://maps.google.com/?q=" + lat + "," + lng;
-        return "🚨 SOS EMERGENCY!\n" +
-               name + " needs help urgently!\n" +
-               "📍 Live Location: " + link + "\n" +
-               "📱 Sent via NavAssist app";
+        return SosMessage.build(getUserName(), lat, lng);
     }
 
     /** Message user sends to guardian with the pairing code */
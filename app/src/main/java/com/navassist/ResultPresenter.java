@@ -0,0 +1,130 @@
+package com.navassist;
+
+import android.text.TextUtils;
+import android.view.Choreographer;
+import android.view.View;
+import android.widget.TextView;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ResultPresenter — One coalesced channel from the analysis thread to the views.
+ *
+ * Instead of several runOnUiThread posts per camera frame, a frame's output
+ * is written as one snapshot and applied at most once per display frame:
+ *
+ *   begin()                 → lock the pending snapshot
+ *   setText / setVisibility → overwrite slots (a superseded value is dropped)
+ *   publish()               → unlock, schedule a Choreographer frame callback
+ *   doFrame()               → copy pending slots, setText only if changed
+ *
+ * Slots not touched by a snapshot keep their current value, so a frame may
+ * update just the status line. Every write to a bound view must go through
+ * the presenter (UI-thread callers included) or the "unchanged" check would
+ * compare against stale text. Nothing is allocated per frame.
+ */
+public class ResultPresenter implements Choreographer.FrameCallback {
+
+    public static final int MAX_SLOTS = 8;
+    private static final int NO_VISIBILITY = -1;
+
+    private final Choreographer choreographer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Bindings (set up once on the UI thread)
+    private final View[] views = new View[MAX_SLOTS];
+
+    // Pending snapshot — guarded by lock
+    private final CharSequence[] pendingText = new CharSequence[MAX_SLOTS];
+    private final boolean[] textDirty = new boolean[MAX_SLOTS];
+    private final int[] pendingVisibility = new int[MAX_SLOTS];
+
+    // What the views currently show — UI thread only
+    private final CharSequence[] shownText = new CharSequence[MAX_SLOTS];
+    private final int[] shownVisibility = new int[MAX_SLOTS];
+    private final CharSequence[] applyText = new CharSequence[MAX_SLOTS];
+    private final boolean[] applyDirty = new boolean[MAX_SLOTS];
+    private final int[] applyVisibility = new int[MAX_SLOTS];
+
+    /** Must be created on the UI thread. */
+    public ResultPresenter() {
+        choreographer = Choreographer.getInstance();
+        for (int i = 0; i < MAX_SLOTS; i++) {
+            pendingVisibility[i] = NO_VISIBILITY;
+            shownVisibility[i] = NO_VISIBILITY;
+        }
+    }
+
+    public void bindText(int slot, TextView view) {
+        views[slot] = view;
+    }
+
+    public void bindVisibility(int slot, View view) {
+        views[slot] = view;
+    }
+
+    // ── Producer side (any thread) ───────────────────────────────────────────
+
+    public void begin() {
+        lock.lock();
+    }
+
+    public void setText(int slot, CharSequence text) {
+        pendingText[slot] = text;
+        textDirty[slot] = true;
+    }
+
+    public void setVisibility(int slot, int visibility) {
+        pendingVisibility[slot] = visibility;
+    }
+
+    public void publish() {
+        lock.unlock();
+        if (scheduled.compareAndSet(false, true)) choreographer.postFrameCallback(this);
+    }
+
+    /** Drops anything not yet applied; call from onDestroy. */
+    public void stop() {
+        choreographer.removeFrameCallback(this);
+        scheduled.set(false);
+    }
+
+    // ── Consumer side (UI thread, once per vsync) ────────────────────────────
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled.set(false);
+        lock.lock();
+        try {
+            for (int i = 0; i < MAX_SLOTS; i++) {
+                applyText[i] = pendingText[i];
+                applyDirty[i] = textDirty[i];
+                applyVisibility[i] = pendingVisibility[i];
+                pendingText[i] = null;
+                textDirty[i] = false;
+                pendingVisibility[i] = NO_VISIBILITY;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (int i = 0; i < MAX_SLOTS; i++) {
+            View v = views[i];
+            if (v == null) continue;
+            if (applyDirty[i]) {
+                CharSequence text = applyText[i];
+                applyText[i] = null;
+                if (!TextUtils.equals(text, shownText[i])) {
+                    shownText[i] = text;
+                    ((TextView) v).setText(text);
+                }
+            }
+            int vis = applyVisibility[i];
+            if (vis != NO_VISIBILITY && vis != shownVisibility[i]) {
+                shownVisibility[i] = vis;
+                v.setVisibility(vis);
+            }
+        }
+    }
+}
@@ -17,6 +17,9 @@ public class SplashActivity extends AppCompatActivity {
         super.onCreate(s);
         setContentView(R.layout.activity_splash);
 
+        // Load the ML models while the user picks a mode
+        ModelManager.get(this).warmUp();
+
         findViewById(R.id.card_blind).setOnClickListener(v -> go(MODE_BLIND));
         findViewById(R.id.card_deaf).setOnClickListener(v  -> go(MODE_DEAF));
         findViewById(R.id.card_mob).setOnClickListener(v   -> go(MODE_MOB));
@@ -0,0 +1,191 @@
+package com.navassist;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.camera.core.ImageCapture;
+import androidx.camera.core.ImageCaptureException;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.Text;
+import com.google.mlkit.vision.text.TextRecognizer;
+import java.util.concurrent.Executor;
+
+/**
+ * TextCaptureController — Reads text from a high-resolution still, not the preview stream.
+ *
+ *   low-res OCR (FramePipeline TextStage) → where is text, has it moved?
+ *   view settled for SETTLE_MS           → ImageCapture.takePicture()
+ *   TextRecognizer on the still          → Listener.onTextRead(text)
+ *
+ * The low-res pass only locates text: the union of its block boxes is the
+ * text region. A capture is armed when that region differs from the one
+ * last read, and fires once no differing region has been reported for
+ * SETTLE_MS — FramePipeline stops delivering frames while the view is still,
+ * so that quiet period means the camera is steady. Holding the camera on
+ * the same sign does not re-read it.
+ *
+ * Frame results arrive on the analysis thread; the capture timer runs on the
+ * main looper and results are delivered on the given executor.
+ */
+public class TextCaptureController {
+
+    /** Receives each high-resolution read. */
+    public interface Listener {
+        void onTextRead(Text text);
+    }
+
+    private static final long SETTLE_MS = 500;
+    private static final float SAME_REGION_IOU = 0.6f;
+    private static final Size CAPTURE_SIZE = new Size(1920, 1440);
+
+    private final TextRecognizer recognizer;
+    private final Executor executor;
+    private final Listener listener;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final ImageCapture capture;
+    private final Runnable fire = this::takePicture;
+
+    // Normalised {l, t, r, b} text regions — guarded by this
+    private final float[] region = new float[4];
+    private final float[] pending = new float[4];
+    private final float[] shot = new float[4];      // region of the capture in flight
+    private final float[] lastRead = new float[4];
+    private boolean hasPending, hasLastRead, capturing, bound;
+
+    public TextCaptureController(TextRecognizer recognizer, Executor executor, Listener listener) {
+        this.recognizer = recognizer;
+        this.executor = executor;
+        this.listener = listener;
+        capture = new ImageCapture.Builder()
+            .setCaptureMode(ImageCapture.CAPTURE_MODE_MINIMIZE_LATENCY)
+            .setResolutionSelector(new ResolutionSelector.Builder()
+                .setResolutionStrategy(new ResolutionStrategy(CAPTURE_SIZE,
+                    ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER))
+                .build())
+            .build();
+    }
+
+    /** Use case to bind next to ImageAnalysis while text mode is active. */
+    public ImageCapture useCase() {
+        return capture;
+    }
+
+    /** Whether the use case is currently bound; captures are only taken when it is. */
+    public synchronized void setBound(boolean on) {
+        bound = on;
+        if (!on) cancel();
+    }
+
+    /**
+     * Low-res OCR of one analysed frame (upright width / height). Returns true
+     * while a read of the text in view is armed or in flight.
+     */
+    public synchronized boolean onPreviewText(Text text, int width, int height) {
+        if (!unionOf(text, width, height, region)) {
+            // Text left the view: forget it so pointing back reads it again
+            // (TextReader still stops the same words being spoken twice)
+            hasLastRead = false;
+            disarm();
+            return capturing;
+        }
+        if (hasLastRead && iou(region, lastRead) >= SAME_REGION_IOU) { disarm(); return capturing; }
+        if (hasPending && iou(region, pending) >= SAME_REGION_IOU) return true;   // still settling
+
+        System.arraycopy(region, 0, pending, 0, 4);
+        hasPending = true;
+        main.removeCallbacks(fire);
+        main.postDelayed(fire, SETTLE_MS);
+        return true;
+    }
+
+    /** Stops any armed capture and forgets the last region read (new mode session). */
+    public synchronized void reset() {
+        cancel();
+        hasLastRead = false;
+    }
+
+    public synchronized void cancel() {
+        disarm();
+    }
+
+    private void disarm() {
+        hasPending = false;
+        main.removeCallbacks(fire);
+    }
+
+    // ── Capture ──────────────────────────────────────────────────────────────
+
+    private synchronized void takePicture() {
+        if (!hasPending || capturing || !bound) return;
+        capturing = true;
+        System.arraycopy(pending, 0, shot, 0, 4);
+        capture.takePicture(executor, new ImageCapture.OnImageCapturedCallback() {
+            @Override public void onCaptureSuccess(@NonNull ImageProxy image) {
+                recognize(image);
+            }
+
+            @Override public void onError(@NonNull ImageCaptureException e) {
+                synchronized (TextCaptureController.this) {
+                    capturing = false;
+                    hasPending = false;   // the next frame with text re-arms
+                }
+            }
+        });
+    }
+
+    private void recognize(ImageProxy image) {
+        InputImage input;
+        try {
+            Bitmap bitmap = image.toBitmap();
+            input = InputImage.fromBitmap(bitmap, image.getImageInfo().getRotationDegrees());
+        } catch (RuntimeException e) {
+            synchronized (this) { capturing = false; hasPending = false; }
+            return;
+        } finally {
+            image.close();
+        }
+        recognizer.process(input).addOnCompleteListener(executor, t -> {
+            synchronized (this) {
+                capturing = false;
+                if (!t.isSuccessful()) { hasPending = false; return; }
+                System.arraycopy(shot, 0, lastRead, 0, 4);
+                hasLastRead = true;
+                // The view moved to new text while this still was processed: read that too
+                if (hasPending && iou(pending, shot) < SAME_REGION_IOU) main.postDelayed(fire, SETTLE_MS);
+                else hasPending = false;
+            }
+            listener.onTextRead(t.getResult());
+        });
+    }
+
+    // ── Regions ──────────────────────────────────────────────────────────────
+
+    private static boolean unionOf(Text text, int width, int height, float[] out) {
+        int l = Integer.MAX_VALUE, tp = Integer.MAX_VALUE, r = Integer.MIN_VALUE, b = Integer.MIN_VALUE;
+        for (Text.TextBlock block : text.getTextBlocks()) {
+            Rect box = block.getBoundingBox();
+            if (box == null) continue;
+            l = Math.min(l, box.left); tp = Math.min(tp, box.top);
+            r = Math.max(r, box.right); b = Math.max(b, box.bottom);
+        }
+        if (r <= l || b <= tp) return false;
+        out[0] = l / (float) width;  out[1] = tp / (float) height;
+        out[2] = r / (float) width;  out[3] = b / (float) height;
+        return true;
+    }
+
+    private static float iou(float[] a, float[] b) {
+        float iw = Math.min(a[2], b[2]) - Math.max(a[0], b[0]);
+        float ih = Math.min(a[3], b[3]) - Math.max(a[1], b[1]);
+        if (iw <= 0 || ih <= 0) return 0f;
+        float inter = iw * ih;
+        float union = (a[2] - a[0]) * (a[3] - a[1]) + (b[2] - b[0]) * (b[3] - b[1]) - inter;
+        return union <= 0 ? 0f : inter / union;
+    }
+}
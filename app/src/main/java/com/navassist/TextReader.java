@@ -0,0 +1,77 @@
+package com.navassist;
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.speech.tts.TextToSpeech;
+import com.google.mlkit.vision.text.Text;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TextReader — Streams recognised text to TTS block by block.
+ *
+ *   order(text)      → blocks in reading order (ReadingOrder)
+ *   speakNew(blocks) → QUEUE_ADD every block not read recently (TextBlockLog)
+ *
+ * Blocks are queued one utterance each instead of flushing the whole text,
+ * so the first block starts speaking straight away and a new read of a long
+ * document never restarts it from the top — only what was not read yet is
+ * appended behind what is already playing.
+ */
+public class TextReader {
+
+    private static final int MAX_BLOCKS = 64;
+    private static final long BLOCK_TTL_MS = 60_000;
+
+    private final TextToSpeech tts;
+    private final TextBlockLog log = new TextBlockLog(32, BLOCK_TTL_MS);
+    private final int[] left = new int[MAX_BLOCKS], top = new int[MAX_BLOCKS];
+    private final int[] right = new int[MAX_BLOCKS], bottom = new int[MAX_BLOCKS];
+    private final int[] order = new int[MAX_BLOCKS], row = new int[MAX_BLOCKS];
+    private int utterance;
+
+    public TextReader(TextToSpeech tts) {
+        this.tts = tts;
+    }
+
+    /** Block texts in reading order (blocks without a box keep ML Kit's order, last). */
+    public List<String> order(Text text) {
+        List<Text.TextBlock> blocks = text.getTextBlocks();
+        List<String> out = new ArrayList<>(blocks.size());
+        List<String> unplaced = null;
+        int n = 0;
+        for (Text.TextBlock b : blocks) {
+            Rect box = b.getBoundingBox();
+            if (box == null || n == MAX_BLOCKS) {
+                if (unplaced == null) unplaced = new ArrayList<>();
+                unplaced.add(b.getText());
+                continue;
+            }
+            left[n] = box.left; top[n] = box.top; right[n] = box.right; bottom[n] = box.bottom;
+            out.add(b.getText());
+            n++;
+        }
+        ReadingOrder.sort(left, top, right, bottom, n, order, row);
+        List<String> sorted = new ArrayList<>(blocks.size());
+        for (int i = 0; i < n; i++) sorted.add(out.get(order[i]));
+        if (unplaced != null) sorted.addAll(unplaced);
+        return sorted;
+    }
+
+    /** Queues every block not read recently; returns how many were queued. */
+    public int speakNew(List<String> blocks) {
+        long now = SystemClock.elapsedRealtime();
+        int queued = 0;
+        for (String block : blocks) {
+            if (!log.markRead(block, now)) continue;
+            if (tts != null) tts.speak(block, TextToSpeech.QUEUE_ADD, null, "text-" + utterance++);
+            queued++;
+        }
+        return queued;
+    }
+
+    /** Forgets what was read, e.g. when text mode is entered again. */
+    public void reset() {
+        log.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.navassist;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AlertBenchmark — Work done each time something is announced.
+ *
+ *   haptic     → HapticPatterns: the hazard waveform for a direction and how
+ *                long it plays (what DualCameraActivity does per hazard)
+ *   schedule   → AlertScheduler.offer() for a hazard and a routine result
+ *   sos        → SosMessage.build()
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlertBenchmark {
+
+    private static final String[] DIRS = {
+        HapticPatterns.DIR_LEFT, HapticPatterns.DIR_FRONT, HapticPatterns.DIR_RIGHT, HapticPatterns.DIR_BACK,
+    };
+
+    private final AlertScheduler alerts = new AlertScheduler(2500);
+    private double lat = 12.971599, lng = 77.594566;
+    private long now;
+    private int i;
+
+    @Benchmark
+    public long haptic() {
+        String dir = DIRS[i++ & 3];
+        return HapticPatterns.hazard(dir).length + HapticPatterns.hazardMs(dir);
+    }
+
+    @Benchmark
+    public int schedule() {
+        now += 700;
+        return alerts.offer(3, "stairs", HapticPatterns.hazardMs(HapticPatterns.DIR_FRONT), now)
+             + alerts.offer(0, "chair", AlertScheduler.speechMs("Chair, on your left, nearby"), now);
+    }
+
+    @Benchmark
+    public String sos() {
+        return SosMessage.build("NavAssist User", lat, lng);
+    }
+}
@@ -0,0 +1,69 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * FrameBenchmark — The Y-plane checks every camera frame goes through before
+ * (or instead of) ML Kit, on a 640 × 480 plane.
+ *
+ *   sceneChange → SceneChangeDetector.update()
+ *   quality     → FrameQualityGate.check()
+ *   ground      → GroundAnalyzer.analyze(), rotation 90 as on a phone
+ *   triage      → FrameTriage.decide(), all of the first two plus the
+ *                 scheduler, as FramePipeline.analyze() runs it
+ *
+ * The plane is textured noise with a darker band across the lower part
+ * (a riser), so the analysers take their full path rather than bailing out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameBenchmark {
+
+    private static final int W = 640, H = 480;
+    private static final int RISER = W * 3 / 4;   // sensor column; the lower part of the upright frame
+
+    private final SceneChangeDetector sceneChange = new SceneChangeDetector();
+    private final FrameQualityGate quality = new FrameQualityGate();
+    private final GroundAnalyzer ground = new GroundAnalyzer();
+    private final FrameTriage triage = new FrameTriage(new PipelineMetrics());
+    private ByteBuffer y;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        byte[] plane = new byte[W * H];
+        Random rnd = new Random(42);
+        for (int r = 0; r < H; r++)
+            for (int c = 0; c < W; c++)
+                plane[r * W + c] = (byte) ((c >= RISER && c < RISER + 40 ? 40 : 100) + rnd.nextInt(40));
+        y = ByteBuffer.wrap(plane);
+    }
+
+    @Benchmark
+    public boolean sceneChange() {
+        return sceneChange.update(y, W, H, W, 1);
+    }
+
+    @Benchmark
+    public int quality() {
+        return quality.check(y, W, H, W, 1);
+    }
+
+    @Benchmark
+    public int ground() {
+        return ground.analyze(y, W, H, W, 1, 90);
+    }
+
+    @Benchmark
+    public Object triage() {
+        now += 33;
+        return triage.decide(y, W, H, W, 1, now, false);
+    }
+}
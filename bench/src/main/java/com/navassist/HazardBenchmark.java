@@ -0,0 +1,66 @@
+package com.navassist;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * HazardBenchmark — isHazard() over a frame's worth of ML Kit labels.
+ *
+ *   matcher   → Hazards / HazardMatcher (one automaton pass per label)
+ *   substring → the scan it replaced: lower-case the label, then contains()
+ *               for every vocabulary entry (kept here as the reference)
+ *
+ * LABELS mixes hazards, near misses ("Personal computer") and plain labels
+ * roughly as the labeler reports them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HazardBenchmark {
+
+    static final String[] LABELS = {
+        "Person", "Chair", "Table", "Car", "Dog", "Stairs", "Personal computer", "Traffic cone",
+        "Bicycle wheel", "Sky", "Building", "Door", "Flowerpot", "Sidewalk", "Handrail", "Bus",
+    };
+
+    private static final Set<String> SUBSTRINGS = new HashSet<>(Arrays.asList(
+        "hole","gap","crack","step","stairs","staircase","curb","kerb","slope","ramp",
+        "obstacle","barrier","wall","fence","pole","pillar","column","door","gate",
+        "car","vehicle","motorcycle","bicycle","truck","bus","scooter","wheel",
+        "person","human","crowd","dog","cat","animal","bird",
+        "puddle","water","mud","rock","stone","pit","ditch","drain","manhole",
+        "construction","cone","traffic cone","bump","speed bump","cable","wire"
+    ));
+
+    private final HazardMatcher matcher = HazardMatcher.of(Hazards.DEFAULT_VOCABULARY);
+
+    @Benchmark
+    public void matcher(Blackhole bh) {
+        for (String l : LABELS) bh.consume(matcher.priorityOf(l));
+    }
+
+    @Benchmark
+    public void substring(Blackhole bh) {
+        for (String l : LABELS) bh.consume(substringIsHazard(l));
+    }
+
+    @Benchmark
+    public HazardMatcher compileVocabulary() {
+        return HazardMatcher.of(Hazards.DEFAULT_VOCABULARY);
+    }
+
+    static boolean substringIsHazard(String label) {
+        if (label == null) return false;
+        String l = label.toLowerCase(Locale.ROOT);
+        for (String k : SUBSTRINGS) if (l.contains(k)) return true;
+        return false;
+    }
+}
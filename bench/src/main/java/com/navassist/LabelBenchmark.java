@@ -0,0 +1,54 @@
+package com.navassist;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * LabelBenchmark — Label post-processing done for every full frame.
+ *
+ *   format → ResultFormatter: a labeler result of LABELS, partial top-5,
+ *            the secondary line, the spoken sentence and the status text
+ *   cache  → LabelCache: look up, refresh and evict the tracked objects of
+ *            one frame (RoiLabelStage)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LabelBenchmark {
+
+    private static final String[] LABELS = HazardBenchmark.LABELS;
+    private static final float[] CONFIDENCES = {
+        0.91f, 0.55f, 0.62f, 0.48f, 0.77f, 0.83f, 0.51f, 0.69f, 0.46f, 0.88f, 0.58f, 0.64f, 0.47f, 0.73f, 0.52f, 0.6f,
+    };
+    private static final int TRACKED = 5;
+
+    private final ResultFormatter formatter = new ResultFormatter();
+    private final LabelCache cache = new LabelCache(8, 2000, 1000);
+    private long now;
+
+    @Benchmark
+    public Object format() {
+        formatter.clear();
+        for (int i = 0; i < LABELS.length; i++) formatter.add(LABELS[i], CONFIDENCES[i]);
+        formatter.selectTop(5);
+        formatter.secondaryLine(1);
+        formatter.statusText(LABELS.length);
+        return formatter.spoken(formatter.name(0), "straight ahead, nearby");
+    }
+
+    @Benchmark
+    public int cache() {
+        now += 33;
+        int fresh = 0;
+        for (int id = 0; id < TRACKED; id++) {
+            int e = cache.lookup(id, now);
+            if (e >= 0 && cache.isFresh(e, now)) fresh++;
+            else cache.put(id, LABELS[id], CONFIDENCES[id], now);
+        }
+        cache.evictLost(now);
+        return fresh;
+    }
+}
@@ -0,0 +1,59 @@
+package com.navassist;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * SceneBenchmark — Per-frame position path, from detector boxes to what is
+ * said and pulsed.
+ *
+ *   position → SceneModel.add() for BOXES boxes (side, distance, hazard
+ *              level), priorityIndex(), describe() and
+ *              HapticPatterns.directionOf()
+ *   track    → the same frame through ObjectTracker.update() and its
+ *              priorityIndex(); boxes drift a little each frame, as they do
+ *              from a hand-held camera
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SceneBenchmark {
+
+    private static final int W = 480, H = 640;
+    // left, top, right, bottom
+    private static final int[][] BOXES = {
+        {40, 300, 200, 620}, {220, 260, 300, 420}, {330, 100, 470, 300}, {10, 20, 90, 120}, {150, 500, 330, 640},
+    };
+    private static final String[] NAMES = {"Person", "Chair", "Car", "Sky", "Stairs"};
+
+    private final SceneModel scene = new SceneModel();
+    private final ObjectTracker tracker = new ObjectTracker();
+    private long frame;
+
+    @Benchmark
+    public Object position() {
+        fill(0);
+        int p = scene.priorityIndex(false);
+        scene.describe(p);
+        return HapticPatterns.directionOf(scene.side[p]);
+    }
+
+    @Benchmark
+    public int track() {
+        fill(++frame);
+        tracker.update(scene);
+        return tracker.priorityIndex();
+    }
+
+    private void fill(long n) {
+        int jitter = (int) (n % 5) - 2;
+        scene.begin(W, H, n * 33_333_333L);
+        for (int i = 0; i < BOXES.length; i++) {
+            int[] b = BOXES[i];
+            scene.add(b[0] + jitter, b[1] + jitter, b[2] + jitter, b[3] + jitter, i + 1, NAMES[i], 0.8f);
+        }
+    }
+}
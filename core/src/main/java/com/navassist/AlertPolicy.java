@@ -0,0 +1,128 @@
+package com.navassist;
+
+/**
+ * AlertPolicy — What one delivered frame announces. CameraActivity,
+ * DualCameraActivity and FrameReplayer all decide through it, so a replay
+ * hears what the user would have.
+ *
+ *   choose(full, ground, modelHazard, tracks, scene, bestLabel)
+ *       → GROUND, MODEL, TRACK, LABEL, SCANNING or NOTHING; level(),
+ *         track() and box() tell the rest
+ *   offer(key, text, durationMs, now) → AlertScheduler verdict for it
+ *
+ * One announcement per frame, the most urgent (AlertScheduler.urgency):
+ *   ground  → a step or drop-off (GroundStage)
+ *   model   → the custom hazard model's best hazard label (HazardStage)
+ *   track   → the tracker's primary stable, labeled track
+ *   label   → no track yet: the best whole-frame label, placed by the most
+ *             important box
+ * The ground, then the model, win a tie with the object, which then waits.
+ * The tracker runs on every detector frame, so a tracked hazard or an
+ * approaching track is considered on DETECT_ONLY frames too; routine
+ * objects and whole-frame labels only on FULL frames. Labeled boxes that
+ * are not stable yet announce nothing rather than flicker; a FULL frame
+ * with nothing labeled is SCANNING.
+ *
+ * offer(): routine output needs something new — a track that
+ * needsAnnouncement(), or other text than the last thing played — while
+ * hazards are always offered and AlertScheduler spaces their repeats. text
+ * is exactly what will play (a hazard's "Caution. …" included) and
+ * durationMs how long it plays. Routine
+ * output holds the FrameScheduler off for the routine cooldown; a track
+ * that played is marked announced.
+ *
+ * Pure Java, no allocation; call it from the thread that delivers results.
+ */
+public class AlertPolicy {
+
+    public static final int NOTHING = 0, GROUND = 1, MODEL = 2, TRACK = 3, LABEL = 4, SCANNING = 5;
+
+    private final AlertScheduler alerts;
+    private final FrameScheduler scheduler;
+    private final long routineCooldownMs;
+
+    private ObjectTracker tracks;
+    private int choice = NOTHING, level, track = ObjectTracker.NONE, box = -1;
+    private String lastText = "";
+
+    public AlertPolicy(AlertScheduler alerts, FrameScheduler scheduler, long routineCooldownMs) {
+        this.alerts = alerts;
+        this.scheduler = scheduler;
+        this.routineCooldownMs = routineCooldownMs;
+    }
+
+    /**
+     * full → the frame ran every stage, else it only ran the detector (and
+     * the ground / hazard stages on their cadence); ground / modelHazard /
+     * bestLabel are null when the frame has none (bestLabel: the most
+     * confident whole-frame label).
+     */
+    public int choose(boolean full, GroundAnalyzer.Finding ground, String modelHazard,
+                      ObjectTracker tracks, SceneModel scene, String bestLabel) {
+        this.tracks = tracks;
+        track = ObjectTracker.NONE;
+        box = -1;
+        int object = NOTHING, objectLevel = 0;
+        int t = tracks.priorityIndex();
+        if (t >= 0) {
+            // Approaching tracks and hazards rank first (ObjectTracker.priorityIndex)
+            int trackLevel = AlertScheduler.urgency(tracks.hazardLevel[t], tracks.side[t],
+                                                    tracks.distance[t], tracks.approaching(t));
+            if (full || trackLevel > 0) {
+                object = TRACK;
+                track = t;
+                objectLevel = trackLevel;
+            }
+        } else if (full && scene.priorityIndex(true) < 0) {
+            if (bestLabel == null) {
+                object = SCANNING;
+            } else {
+                object = LABEL;
+                box = scene.priorityIndex(false);
+                int hazard = Hazards.priority(bestLabel);
+                objectLevel = box >= 0 ? AlertScheduler.urgency(hazard, scene.side[box], scene.distance[box])
+                                       : hazard;
+            }
+        }
+        int groundLevel = ground != null ? AlertScheduler.urgency(ground.level(), ground.side, ground.distance) : 0;
+        int modelLevel = modelHazard != null ? Hazards.priority(modelHazard) : 0;
+        int hazardLevel = Math.max(groundLevel, modelLevel);
+        if (hazardLevel > 0 && hazardLevel >= objectLevel) {
+            choice = groundLevel >= modelLevel ? GROUND : MODEL;
+            level = hazardLevel;
+            track = ObjectTracker.NONE;
+            box = -1;
+        } else {
+            choice = object;
+            level = objectLevel;
+        }
+        return choice;
+    }
+
+    /** Urgency of the last choice; > 0 goes out on the hazard lane. */
+    public int level() {
+        return level;
+    }
+
+    /** The track chosen (TRACK), or ObjectTracker.NONE. */
+    public int track() {
+        return track;
+    }
+
+    /** The box placing a LABEL choice, or -1 (straight ahead). */
+    public int box() {
+        return box;
+    }
+
+    public int offer(String key, String text, long durationMs, long now) {
+        if (choice == NOTHING || choice == SCANNING) return AlertScheduler.SUPPRESS;
+        if (level == 0 && (choice == TRACK ? !tracks.needsAnnouncement(track) : text.equals(lastText)))
+            return AlertScheduler.SUPPRESS;
+        int verdict = alerts.offer(level, key, durationMs, now);
+        if (verdict == AlertScheduler.SUPPRESS) return verdict;
+        lastText = text;
+        if (choice == TRACK) tracks.markAnnounced(track);
+        if (level == 0) scheduler.holdOff(now + routineCooldownMs);
+        return verdict;
+    }
+}
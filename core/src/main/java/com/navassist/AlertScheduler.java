@@ -0,0 +1,130 @@
+package com.navassist;
+
+/**
+ * AlertScheduler — Decides which announcement may play now, hazards first.
+ *
+ *   offer(level, key, durationMs, now) → SUPPRESS, PLAY or PREEMPT
+ *
+ * Two lanes:
+ *   hazard  (level > 0) → never waits for a cooldown. Plays in the same call,
+ *                         cutting off routine output or a lower-level hazard
+ *                         (PREEMPT). A hazard of the same level waits for the
+ *                         one playing to end — it is suppressed without being
+ *                         recorded, so the next frame offers it again. The
+ *                         same key repeats only every HAZARD_REPEAT_MS unless
+ *                         its level rises; a hazard that was cut off does not
+ *                         count as heard and may play again at once.
+ *   routine (level 0)   → at most one per routine cooldown, and never over a
+ *                         hazard that is still playing.
+ *
+ * So a hazard is never held back by routine output, and a more urgent one
+ * waits for nothing: its output latency is the pipeline's alone, which
+ * PipelineMetrics records separately. urgency()
+ * turns a detection into a level (hazard class, plus one when it is very
+ * close and straight ahead, plus one — and at least 2 — when it is
+ * approaching fast); speechMs() estimates how long speech plays.
+ *
+ * Pure Java; time is passed in. Not thread-safe — call it from the thread
+ * that delivers results (the analysis thread).
+ */
+public class AlertScheduler {
+
+    public static final int SUPPRESS = 0, PLAY = 1, PREEMPT = 2;
+
+    public static final long HAZARD_REPEAT_MS = 5000;
+    private static final int MAX_KEYS = 8;
+    private static final long SPEECH_BASE_MS = 300, SPEECH_PER_CHAR_MS = 65;
+
+    private final long routineCooldownMs;
+
+    private int playingLevel = -1;
+    private String playingKey;
+    private long playingUntil = Long.MIN_VALUE;
+    private long lastRoutine = Long.MIN_VALUE / 2;
+
+    // Recent hazards, for the repeat interval
+    private final String[] keys = new String[MAX_KEYS];
+    private final int[] keyLevel = new int[MAX_KEYS];
+    private final long[] keyTime = new long[MAX_KEYS];
+    private int keyCount;
+
+    public AlertScheduler(long routineCooldownMs) {
+        this.routineCooldownMs = routineCooldownMs;
+    }
+
+    /** Whether an alert of this level may start now; if so it is recorded as playing. */
+    public int offer(int level, String key, long durationMs, long now) {
+        boolean busy = now < playingUntil;
+        if (level > 0) {
+            if (busy && playingLevel >= level) return SUPPRESS;
+            int k = find(key);
+            if (k >= 0 && now - keyTime[k] < HAZARD_REPEAT_MS && keyLevel[k] >= level) return SUPPRESS;
+            if (busy && playingLevel > 0) forget(playingKey);
+            remember(k, key, level, now);
+        } else {
+            if (busy && playingLevel > 0) return SUPPRESS;
+            if (now - lastRoutine < routineCooldownMs) return SUPPRESS;
+            lastRoutine = now;
+        }
+        playingLevel = level;
+        playingKey = key;
+        playingUntil = now + durationMs;
+        return busy ? PREEMPT : PLAY;
+    }
+
+    /** Output was stopped from outside (mode switch, voice command). */
+    public void interrupted() {
+        playingUntil = Long.MIN_VALUE;
+        playingLevel = -1;
+        playingKey = null;
+    }
+
+    public void reset() {
+        interrupted();
+        lastRoutine = Long.MIN_VALUE / 2;
+        for (int i = 0; i < keyCount; i++) keys[i] = null;
+        keyCount = 0;
+    }
+
+    /** Hazards priority, plus one when the object is very close and straight ahead. */
+    public static int urgency(int hazardLevel, int side, int distance) {
+        boolean inTheWay = side == SceneModel.SIDE_CENTER && distance == SceneModel.DIST_VERY_CLOSE;
+        return inTheWay ? hazardLevel + 1 : hazardLevel;
+    }
+
+    /** As above; anything approaching fast is a hazard of at least level 2. */
+    public static int urgency(int hazardLevel, int side, int distance, boolean approaching) {
+        int level = urgency(hazardLevel, side, distance);
+        return approaching ? Math.max(level, 1) + 1 : level;
+    }
+
+    /** Rough TTS playing time for the text. */
+    public static long speechMs(CharSequence text) {
+        return SPEECH_BASE_MS + SPEECH_PER_CHAR_MS * text.length();
+    }
+
+    private int find(String key) {
+        for (int i = 0; i < keyCount; i++) if (keys[i].equals(key)) return i;
+        return -1;
+    }
+
+    // A hazard cut off before it finished was not heard; let it play again
+    private void forget(String key) {
+        int k = find(key);
+        if (k >= 0) keyTime[k] = Long.MIN_VALUE / 2;
+    }
+
+    private void remember(int k, String key, int level, long now) {
+        if (k < 0) {
+            if (keyCount < MAX_KEYS) {
+                k = keyCount++;
+            } else {
+                k = 0;
+                for (int i = 1; i < keyCount; i++) if (keyTime[i] < keyTime[k]) k = i;
+            }
+            keys[k] = key;
+        }
+        keyLevel[k] = level;
+        keyTime[k] = now;
+    }
+}
@@ -0,0 +1,150 @@
+package com.navassist;
+
+/**
+ * ApproachEstimator — Time-to-contact per track from how fast its box grows.
+ *
+ * An object closing in on the camera grows in the image: with s = sqrt(box
+ * area) (its apparent size), time to contact ≈ s / (ds/dt). Each slot keeps
+ * the last WINDOW samples of (time, s) in a ring buffer, and the growth rate
+ * (ds/dt) / s is a least-squares fit over the samples younger than
+ * WINDOW_NANOS, so a single jittery box does not fake an approach.
+ *
+ * Walking towards a parked car grows its box just as a car driving at the
+ * user does. The user's own motion grows every box in view, so the rate
+ * each slot is judged on is its own minus the median rate of the other
+ * slots seen in the same frame. With no other slot to compare against the
+ * rate is taken as it is.
+ *
+ *   add(slot, timeNanos, scale) → record one observation
+ *   update(slots, timeNanos)    → judge every slot that got a sample at
+ *                                 timeNanos, once all of them have
+ *   ttcSeconds(slot)            → time to contact, or Float.POSITIVE_INFINITY
+ *                                 (not growing faster than the rest, or fewer
+ *                                 than MIN_SAMPLES)
+ *   approaching(slot)           → ttc below APPROACH_TTC_S; latched until it
+ *                                 rises above CLEAR_TTC_S again
+ *
+ * Slots mirror ObjectTracker's track indices: reset() a new track, move()
+ * when the tracker compacts its arrays. Fixed arrays, nothing allocated
+ * after construction.
+ */
+public class ApproachEstimator {
+
+    public static final float APPROACH_TTC_S = 2.5f;
+    private static final float CLEAR_TTC_S = 3.5f;
+    private static final int WINDOW = 8;
+    private static final int MIN_SAMPLES = 4;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final long[] time;
+    private final float[] scale;
+    private final int[] head, size;
+    private final long[] last;       // time of the newest sample
+    private final float[] rate;      // growth per second, NaN when unknown
+    private final float[] ttc;
+    private final boolean[] approaching;
+    private final float[] others;    // update() scratch
+
+    public ApproachEstimator(int slots) {
+        time = new long[slots * WINDOW];
+        scale = new float[slots * WINDOW];
+        head = new int[slots];
+        size = new int[slots];
+        last = new long[slots];
+        rate = new float[slots];
+        ttc = new float[slots];
+        approaching = new boolean[slots];
+        others = new float[slots];
+        for (int i = 0; i < slots; i++) reset(i);
+    }
+
+    public void reset(int slot) {
+        head[slot] = 0;
+        size[slot] = 0;
+        last[slot] = Long.MIN_VALUE;
+        rate[slot] = Float.NaN;
+        ttc[slot] = Float.POSITIVE_INFINITY;
+        approaching[slot] = false;
+    }
+
+    /** Slot `from` now lives at `to` (the tracker moved a track). */
+    public void move(int from, int to) {
+        System.arraycopy(time, from * WINDOW, time, to * WINDOW, WINDOW);
+        System.arraycopy(scale, from * WINDOW, scale, to * WINDOW, WINDOW);
+        head[to] = head[from];
+        size[to] = size[from];
+        last[to] = last[from];
+        rate[to] = rate[from];
+        ttc[to] = ttc[from];
+        approaching[to] = approaching[from];
+    }
+
+    public void add(int slot, long timeNanos, float s) {
+        int base = slot * WINDOW;
+        int i = (head[slot] + size[slot]) % WINDOW;
+        if (size[slot] == WINDOW) head[slot] = (head[slot] + 1) % WINDOW;
+        else size[slot]++;
+        time[base + i] = timeNanos;
+        scale[base + i] = s;
+        last[slot] = timeNanos;
+        rate[slot] = estimate(slot, timeNanos);
+    }
+
+    /** Slots [0, slots) with a sample at timeNanos get a new ttc and latch state. */
+    public void update(int slots, long timeNanos) {
+        for (int a = 0; a < slots; a++) {
+            if (last[a] != timeNanos) continue;
+            int n = 0;
+            for (int b = 0; b < slots; b++)
+                if (b != a && last[b] == timeNanos && !Float.isNaN(rate[b])) others[n++] = rate[b];
+            float own = n == 0 ? 0f : median(others, n);
+            float g = rate[a] - own;   // NaN stays NaN: no estimate yet
+            ttc[a] = g > 0 ? 1f / g : Float.POSITIVE_INFINITY;
+            if (ttc[a] < APPROACH_TTC_S) approaching[a] = true;
+            else if (ttc[a] > CLEAR_TTC_S) approaching[a] = false;
+        }
+    }
+
+    public float ttcSeconds(int slot) {
+        return ttc[slot];
+    }
+
+    public boolean approaching(int slot) {
+        return approaching[slot];
+    }
+
+    // Least-squares slope of scale over the samples inside the window, times
+    // relative to the newest so the sums stay small; divided by the fitted
+    // scale now, NaN when there is too little to fit
+    private float estimate(int slot, long now) {
+        int base = slot * WINDOW;
+        int n = 0;
+        double st = 0, ss = 0, stt = 0, sts = 0;
+        for (int k = 0; k < size[slot]; k++) {
+            int i = base + (head[slot] + k) % WINDOW;
+            long age = now - time[i];
+            if (age > WINDOW_NANOS) continue;
+            double t = -age / 1e9;
+            double s = scale[i];
+            st += t; ss += s; stt += t * t; sts += t * s;
+            n++;
+        }
+        if (n < MIN_SAMPLES) return Float.NaN;
+        double den = n * stt - st * st;
+        if (den <= 0) return Float.NaN;
+        double slope = (n * sts - st * ss) / den;
+        double fitNow = (ss - slope * st) / n;   // intercept at t = 0 (now)
+        return fitNow <= 0 ? Float.NaN : (float) (slope / fitNow);
+    }
+
+    // Insertion sort of the first n values; n is at most the slot count
+    private static float median(float[] v, int n) {
+        for (int i = 1; i < n; i++) {
+            float x = v[i];
+            int j = i - 1;
+            while (j >= 0 && v[j] > x) { v[j + 1] = v[j]; j--; }
+            v[j + 1] = x;
+        }
+        return (n & 1) == 1 ? v[n / 2] : (v[n / 2 - 1] + v[n / 2]) * 0.5f;
+    }
+}
@@ -0,0 +1,307 @@
+package com.navassist;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FrameLog — Append-only, memory-mapped recording of what the pipeline saw
+ * and what it found, for replay off-device (FrameReplayer).
+ *
+ * File layout, little-endian:
+ *
+ *   header  "NAVL" | version:int | 8 reserved bytes
+ *   record  type:int | length:int | payload[length]
+ *
+ *   FRAME   sensorNanos:long | uptimeMs:long | width:short | height:short |
+ *           rotation:short | 2 pad | Y plane, width × height, tightly packed
+ *   RESULT  sensorNanos:long | uptimeMs:long | decision:byte | flags:byte |
+ *           ground kind, side, distance:byte | objects:byte | labels:byte |
+ *           1 pad | upright width:short | height:short, then
+ *           per object  left, top, right, bottom, trackingId:int,
+ *                       confidence:float, label:str
+ *           per label   text:str, confidence:float
+ *           (str = length:short, -1 for null, then UTF-8)
+ *
+ * Every frame the pipeline receives gets a FRAME, skipped ones included,
+ * since they move the scheduler too. The frame's RESULT follows once its
+ * stages are delivered, so it may trail its FRAME by the frames in flight;
+ * sensorNanos pairs them up. uptimeMs is the pipeline clock (elapsedRealtime)
+ * at that moment, which is what the scheduler and the alert lanes run on.
+ *
+ * Writer maps the file CHUNK bytes at a time and copies straight into the
+ * mapping: one copy of the Y plane per frame, no write() call, and nothing
+ * allocated except label bytes. A record's type is stored after its payload,
+ * so a log cut short by a crash ends cleanly at the first zero type; close()
+ * trims the unused tail of the last chunk.
+ *
+ * Reader maps a finished log read-only and walks it with next(); the current
+ * record's fields, its SceneModel and its Y plane (a view, not a copy) are
+ * valid until the following call. Logs are capped below 2 GB so one mapping
+ * covers a whole file. Pure Java; neither class is thread-safe.
+ */
+public final class FrameLog {
+
+    private FrameLog() {}
+
+    public static final int END = 0, FRAME = 1, RESULT = 2;
+    public static final int FLAG_DETECTOR = 1;   // the frame ran the detector stages
+    public static final int MAX_LABELS = 16;
+    public static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    private static final int MAGIC = 0x4C56414E;   // "NAVL"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int FRAME_FIXED = 24, RESULT_FIXED = 28;
+    private static final int MAX_STRING = 200;
+    private static final long CHUNK = 16L << 20;
+
+    // ── Writing ──────────────────────────────────────────────────────────────
+
+    public static final class Writer implements Closeable {
+        private final RandomAccessFile file;
+        private final FileChannel channel;
+        private final long maxBytes;
+        private final ByteBuffer scratch = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        private MappedByteBuffer map;
+        private long mapStart, size;
+        private int frames;
+
+        /** Starts a new log (an existing file is overwritten), at most maxBytes long. */
+        public Writer(File path, long maxBytes) throws IOException {
+            this.maxBytes = Math.min(maxBytes, MAX_BYTES);
+            file = new RandomAccessFile(path, "rw");
+            file.setLength(0);
+            channel = file.getChannel();
+            remap(HEADER);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            size = HEADER;
+        }
+
+        /** Appends one camera frame's luma; false once the log is full. */
+        public boolean frame(long sensorNanos, long uptimeMs, int width, int height, int rotation,
+                             ByteBuffer y, int rowStride, int pixelStride) throws IOException {
+            int len = FRAME_FIXED + width * height;
+            int at = begin(len);
+            if (at < 0) return false;
+            map.putLong(at, sensorNanos);
+            map.putLong(at + 8, uptimeMs);
+            map.putShort(at + 16, (short) width);
+            map.putShort(at + 18, (short) height);
+            map.putShort(at + 20, (short) rotation);
+            int p = at + FRAME_FIXED;
+            if (pixelStride == 1) {
+                ByteBuffer src = y.duplicate();
+                for (int row = 0; row < height; row++, p += width) {
+                    src.limit(row * rowStride + width).position(row * rowStride);
+                    map.position(p);
+                    map.put(src);
+                }
+            } else {
+                for (int row = 0; row < height; row++)
+                    for (int x = 0, i = row * rowStride; x < width; x++, i += pixelStride) map.put(p++, y.get(i));
+            }
+            commit(FRAME, len);
+            frames++;
+            return true;
+        }
+
+        /**
+         * Appends what the stages found for one frame; ground may be null,
+         * labels / confidences hold labelCount whole-frame labels.
+         */
+        public boolean result(long sensorNanos, long uptimeMs, int decision, boolean ranDetector, SceneModel scene,
+                              GroundAnalyzer.Finding ground, String[] labels, float[] confidences,
+                              int labelCount) throws IOException {
+            int objects = Math.min(scene.count, SceneModel.MAX_OBJECTS);
+            labelCount = Math.min(labelCount, MAX_LABELS);
+            ByteBuffer b = scratch;
+            b.clear();
+            b.putLong(sensorNanos).putLong(uptimeMs);
+            b.put((byte) decision).put((byte) (ranDetector ? FLAG_DETECTOR : 0));
+            b.put((byte) (ground != null ? ground.kind : GroundAnalyzer.NONE));
+            b.put((byte) (ground != null ? ground.side : 0)).put((byte) (ground != null ? ground.distance : 0));
+            b.put((byte) objects).put((byte) labelCount).put((byte) 0);
+            b.putShort((short) scene.width).putShort((short) scene.height);
+            for (int i = 0; i < objects; i++) {
+                b.putInt(scene.left[i]).putInt(scene.top[i]).putInt(scene.right[i]).putInt(scene.bottom[i]);
+                b.putInt(scene.trackingId[i]).putFloat(scene.confidence[i]);
+                putString(b, scene.label[i]);
+            }
+            for (int i = 0; i < labelCount; i++) {
+                putString(b, labels[i]);
+                b.putFloat(confidences[i]);
+            }
+            int len = b.position();
+            int at = begin(len);
+            if (at < 0) return false;
+            b.flip();
+            map.position(at);
+            map.put(b);
+            commit(RESULT, len);
+            return true;
+        }
+
+        public int frames() {
+            return frames;
+        }
+
+        public long bytes() {
+            return size;
+        }
+
+        @Override public void close() throws IOException {
+            try {
+                if (map != null) map.force();
+                channel.truncate(size);
+            } finally {
+                file.close();
+            }
+        }
+
+        // Payload offset in map for a record of len bytes, or -1 when it would pass maxBytes
+        private int begin(int len) throws IOException {
+            long need = 8L + len;
+            if (size + need > maxBytes) return -1;
+            if (size + need > mapStart + map.capacity()) remap(need);
+            return (int) (size - mapStart) + 8;
+        }
+
+        private void commit(int type, int len) {
+            int at = (int) (size - mapStart);
+            map.putInt(at + 4, len);
+            map.putInt(at, type);   // last: the record exists from here on
+            size += 8L + len;
+        }
+
+        private void remap(long need) throws IOException {
+            if (map != null) map.force();
+            mapStart = size;
+            map = channel.map(FileChannel.MapMode.READ_WRITE, mapStart, Math.max(CHUNK, need));
+            map.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static void putString(ByteBuffer b, String s) {
+            if (s == null) { b.putShort((short) -1); return; }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            int n = Math.min(bytes.length, MAX_STRING);
+            b.putShort((short) n).put(bytes, 0, n);
+        }
+    }
+
+    // ── Reading ──────────────────────────────────────────────────────────────
+
+    public static final class Reader implements Closeable {
+        private final RandomAccessFile file;
+        private final ByteBuffer map;
+        private int pos = HEADER;
+
+        // Both record types
+        public long sensorNanos, uptimeMs;
+        // FRAME
+        public int width, height, rotation;
+        public ByteBuffer y;
+        // RESULT
+        public int decision, flags;
+        public int groundKind, groundSide, groundDistance;
+        public final SceneModel scene = new SceneModel();
+        public final String[] labels = new String[MAX_LABELS];
+        public final float[] confidences = new float[MAX_LABELS];
+        public int labelCount;
+
+        public Reader(File path) throws IOException {
+            file = new RandomAccessFile(path, "r");
+            try {
+                long len = file.length();
+                if (len > MAX_BYTES) throw new IOException(path + ": over 2 GB");
+                map = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, len).order(ByteOrder.LITTLE_ENDIAN);
+                if (len < HEADER || map.getInt(0) != MAGIC) throw new IOException(path + ": not a frame log");
+                if (map.getInt(4) != VERSION) throw new IOException(path + ": frame log version " + map.getInt(4));
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        /** Moves to the next record: FRAME, RESULT or END. Unknown types are skipped. */
+        public int next() {
+            while (pos + 8 <= map.limit()) {
+                int type = map.getInt(pos), len = map.getInt(pos + 4);
+                if (type == END || len < 0 || len > map.limit() - pos - 8) return END;
+                int at = pos + 8;
+                pos = at + len;
+                if (type == FRAME) { readFrame(at); return FRAME; }
+                if (type == RESULT) { readResult(at); return RESULT; }
+            }
+            return END;
+        }
+
+        /** Back to the first record. */
+        public void rewind() {
+            pos = HEADER;
+        }
+
+        /** The current RESULT's ground finding, or null. */
+        public GroundAnalyzer.Finding ground() {
+            return groundKind == GroundAnalyzer.NONE ? null
+                : new GroundAnalyzer.Finding(groundKind, groundSide, groundDistance);
+        }
+
+        @Override public void close() throws IOException {
+            file.close();
+        }
+
+        private void readFrame(int at) {
+            sensorNanos = map.getLong(at);
+            uptimeMs = map.getLong(at + 8);
+            width = map.getShort(at + 16) & 0xFFFF;
+            height = map.getShort(at + 18) & 0xFFFF;
+            rotation = map.getShort(at + 20);
+            ByteBuffer plane = map.duplicate();
+            plane.limit(at + FRAME_FIXED + width * height).position(at + FRAME_FIXED);
+            y = plane.slice();
+        }
+
+        private void readResult(int at) {
+            ByteBuffer b = map.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            b.position(at);
+            sensorNanos = b.getLong();
+            uptimeMs = b.getLong();
+            decision = b.get();
+            flags = b.get();
+            groundKind = b.get();
+            groundSide = b.get();
+            groundDistance = b.get();
+            int objects = b.get() & 0xFF;
+            labelCount = b.get() & 0xFF;
+            b.get();
+            int w = b.getShort() & 0xFFFF, h = b.getShort() & 0xFFFF;
+            scene.begin(w, h, sensorNanos);
+            for (int i = 0; i < objects; i++) {
+                int l = b.getInt(), t = b.getInt(), r = b.getInt(), bottom = b.getInt();
+                int id = b.getInt();
+                float conf = b.getFloat();
+                scene.add(l, t, r, bottom, id, getString(b), conf);
+            }
+            for (int i = 0; i < labelCount; i++) {
+                labels[i] = getString(b);
+                confidences[i] = b.getFloat();
+            }
+        }
+
+        private static String getString(ByteBuffer b) {
+            int n = b.getShort();
+            if (n < 0) return null;
+            byte[] bytes = new byte[n];
+            b.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
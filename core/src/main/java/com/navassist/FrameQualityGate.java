@@ -0,0 +1,90 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * FrameQualityGate — Cheap blur / exposure check before a frame reaches ML Kit.
+ *
+ * Samples a GRID_W × GRID_H grid over the central part of the Y plane and at
+ * every sample takes the 4-neighbour Laplacian at full resolution:
+ *
+ *   sharpness → variance of the Laplacian (motion blur flattens edges)
+ *   exposure  → mean luma, and the share of samples crushed to black or
+ *               clipped to white
+ *
+ *   check() → OK, BLURRY, TOO_DARK or TOO_BRIGHT
+ *
+ * Textureless views (a plain wall) also score low on sharpness, and may be
+ * the nearest obstacle; FrameTriage only lets the gate delay a full pass,
+ * never veto it. About 3 000 samples per
+ * frame, absolute ByteBuffer reads only, no allocation. Thresholds can be
+ * tuned at runtime; the last scores are kept for the metrics overlay.
+ */
+public class FrameQualityGate {
+
+    public static final int OK = 0;
+    public static final int BLURRY = 1;
+    public static final int TOO_DARK = 2;
+    public static final int TOO_BRIGHT = 3;
+
+    private static final int GRID_W = 64, GRID_H = 48;
+    private static final float MARGIN = 0.1f;       // ignore the outer 10% (vignetting, lens blur)
+    private static final int BLACK = 16, WHITE = 245;
+
+    private volatile float minSharpness = 40f;
+    private volatile float minMean = 25f, maxMean = 235f;
+    private volatile float maxClipped = 0.6f;
+
+    private float lastSharpness, lastMean;
+
+    public void setThresholds(float minSharpness, float minMean, float maxMean, float maxClipped) {
+        this.minSharpness = minSharpness;
+        this.minMean = minMean;
+        this.maxMean = maxMean;
+        this.maxClipped = maxClipped;
+    }
+
+    public int check(ByteBuffer y, int width, int height, int rowStride, int pixelStride) {
+        int x0 = Math.max(1, (int) (width * MARGIN)), x1 = Math.min(width - 2, (int) (width * (1 - MARGIN)));
+        int y0 = Math.max(1, (int) (height * MARGIN)), y1 = Math.min(height - 2, (int) (height * (1 - MARGIN)));
+        if (x1 <= x0 || y1 <= y0) return OK;
+
+        long sum = 0, lapSum = 0, lapSq = 0;
+        int dark = 0, bright = 0, n = 0;
+        for (int gy = 0; gy < GRID_H; gy++) {
+            int py = y0 + (y1 - y0) * gy / (GRID_H - 1);
+            int row = py * rowStride;
+            for (int gx = 0; gx < GRID_W; gx++) {
+                int px = x0 + (x1 - x0) * gx / (GRID_W - 1);
+                int i = row + px * pixelStride;
+                int c = y.get(i) & 0xFF;
+                int lap = 4 * c
+                    - (y.get(i - pixelStride) & 0xFF) - (y.get(i + pixelStride) & 0xFF)
+                    - (y.get(i - rowStride) & 0xFF) - (y.get(i + rowStride) & 0xFF);
+                sum += c;
+                lapSum += lap;
+                lapSq += (long) lap * lap;
+                if (c < BLACK) dark++;
+                else if (c > WHITE) bright++;
+                n++;
+            }
+        }
+        float mean = sum / (float) n;
+        float lapMean = lapSum / (float) n;
+        lastMean = mean;
+        lastSharpness = lapSq / (float) n - lapMean * lapMean;
+
+        if (mean < minMean || dark > n * maxClipped) return TOO_DARK;
+        if (mean > maxMean || bright > n * maxClipped) return TOO_BRIGHT;
+        if (lastSharpness < minSharpness) return BLURRY;
+        return OK;
+    }
+
+    public float lastSharpness() {
+        return lastSharpness;
+    }
+
+    public float lastMean() {
+        return lastMean;
+    }
+}
@@ -0,0 +1,253 @@
+package com.navassist;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * FrameReplayer — Runs a FrameLog back through the pipeline's own pure-Java
+ * logic, off-device and as fast as the CPU allows.
+ *
+ *   FRAME  → FrameTriage (scene change, scheduler, quality gate) on the
+ *            recorded clock; frames it does not skip get the GroundAnalyzer
+ *            on its cadence, as GroundStage would
+ *   RESULT → the recorded detections into the ObjectTracker and back into
+ *            the scheduler (FramePipeline.deliver), then the AlertPolicy —
+ *            the activities' own — decides what would have been announced,
+ *            with this replay's decision and ground finding for the frame
+ *
+ * ML Kit does not run here — its output comes from the log — so a replay is
+ * deterministic: the same log through the same code gives the same digest().
+ * Any change in decisions, ground findings, tracking or alerts changes the
+ * digest, and the counts show where. Frames are never "in flight" off-device,
+ * so no full pass is demoted for being busy; on a device recording,
+ * decisionsChanged() counts where the replay parts from what was recorded.
+ * Text and durations are CameraActivity's speech; the HazardStage model
+ * does not run and is not recorded.
+ *
+ *   java -cp <classes> com.navassist.FrameReplayer <log> [repeats]
+ *
+ * prints the counts, the digest and the best time per frame over the repeats.
+ */
+public class FrameReplayer {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L, FNV_PRIME = 0x100000001b3L;
+    private static final long ROUTINE_COOLDOWN_MS = 2500;
+
+    private final long groundIntervalMs;
+
+    private FrameTriage triage;
+    private GroundAnalyzer ground;
+    private ObjectTracker tracker;
+    private AlertPolicy policy;
+    private final ResultFormatter formatter = new ResultFormatter();
+    private long lastGround;
+    private long digest;
+
+    // Replayed decision and ground finding of recent frames, by sensorNanos
+    private final long[] recent = new long[8];
+    private final int[] recentDecision = new int[8];
+    private final GroundAnalyzer.Finding[] recentGround = new GroundAnalyzer.Finding[8];
+
+    // Counts for the last replay
+    private int frames, results;
+    private final int[] decisions = new int[FrameScheduler.Decision.values().length];
+    private int decisionsChanged, groundFound, groundRecorded, announced, hazardAlerts;
+
+    public FrameReplayer(long groundIntervalMs) {
+        this.groundIntervalMs = groundIntervalMs;
+    }
+
+    /** Replays the whole log from its first record with fresh pipeline state. */
+    public void replay(FrameLog.Reader log) {
+        triage = new FrameTriage(new PipelineMetrics());
+        ground = new GroundAnalyzer();
+        tracker = new ObjectTracker();
+        policy = new AlertPolicy(new AlertScheduler(ROUTINE_COOLDOWN_MS), triage.scheduler(), ROUTINE_COOLDOWN_MS);
+        lastGround = Long.MIN_VALUE / 2;
+        digest = FNV_OFFSET;
+        frames = results = decisionsChanged = groundFound = groundRecorded = announced = hazardAlerts = 0;
+        for (int i = 0; i < decisions.length; i++) decisions[i] = 0;
+        for (int i = 0; i < recent.length; i++) {
+            recent[i] = Long.MIN_VALUE;
+            recentGround[i] = null;
+        }
+
+        log.rewind();
+        for (int type; (type = log.next()) != FrameLog.END; ) {
+            if (type == FrameLog.FRAME) {
+                onFrame(log, frames % recent.length);
+                frames++;
+            } else {
+                results++;
+                onResult(log);
+            }
+        }
+    }
+
+    private void onFrame(FrameLog.Reader log, int slot) {
+        FrameScheduler.Decision decision = triage.decide(log.y, log.width, log.height, log.width, 1,
+            log.uptimeMs, false);
+        decisions[decision.ordinal()]++;
+        mix(decision.ordinal());
+        recent[slot] = log.sensorNanos;
+        recentDecision[slot] = decision.ordinal();
+        recentGround[slot] = null;
+        if (decision == FrameScheduler.Decision.SKIP) return;
+        triage.accept();
+        if (log.uptimeMs - lastGround >= groundIntervalMs) {
+            lastGround = log.uptimeMs;
+            int kind = ground.analyze(log.y, log.width, log.height, log.width, 1, log.rotation);
+            mix(kind);
+            if (kind != GroundAnalyzer.NONE) {
+                groundFound++;
+                mix(ground.side());
+                mix(ground.distance());
+                recentGround[slot] = new GroundAnalyzer.Finding(kind, ground.side(), ground.distance());
+            }
+        }
+    }
+
+    private void onResult(FrameLog.Reader log) {
+        if (log.groundKind != GroundAnalyzer.NONE) groundRecorded++;
+        int slot = -1;
+        for (int i = 0; i < recent.length; i++) if (recent[i] == log.sensorNanos) slot = i;
+        // A frame this replay skipped is not delivered; its detections still
+        // reach the tracker, as they did on the device
+        int decision = slot >= 0 ? recentDecision[slot] : FrameScheduler.Decision.SKIP.ordinal();
+        if (decision != log.decision) decisionsChanged++;
+        SceneModel scene = log.scene;
+        if ((log.flags & FrameLog.FLAG_DETECTOR) != 0) {
+            tracker.update(scene);
+            triage.onScene(scene);
+            mix(tracker.count);
+            mix(tracker.priorityIndex());
+        }
+        if (decision == FrameScheduler.Decision.SKIP.ordinal()) return;
+
+        boolean full = decision == FrameScheduler.Decision.FULL.ordinal();
+        GroundAnalyzer.Finding g = recentGround[slot];
+        String best = full ? bestLabel(log) : null;
+        int choice = policy.choose(full, g, null, tracker, scene, best);
+        mix(choice);
+        String key, spoken;
+        switch (choice) {
+            case AlertPolicy.GROUND:
+                key = g.name();
+                spoken = formatter.spoken(key, g.position());
+                break;
+            case AlertPolicy.TRACK: {
+                int t = policy.track();
+                key = tracker.label[t];
+                String pos = tracker.describe(t);
+                spoken = tracker.approaching(t) ? formatter.approaching(key, pos) : formatter.spoken(key, pos);
+                break;
+            }
+            case AlertPolicy.LABEL: {
+                int p = policy.box();
+                key = best;
+                spoken = formatter.spoken(key, p >= 0 ? scene.describe(p) : "straight ahead");
+                break;
+            }
+            default:
+                return;
+        }
+        mix(key.hashCode());
+        int level = policy.level();
+        if (level > 0) spoken = formatter.caution(spoken);
+        int verdict = policy.offer(key, spoken, AlertScheduler.speechMs(spoken), log.uptimeMs);
+        mix(verdict);
+        mix(level);
+        if (verdict == AlertScheduler.SUPPRESS) return;
+        announced++;
+        if (level > 0) hazardAlerts++;
+    }
+
+    // Most confident recorded whole-frame label, or null
+    private static String bestLabel(FrameLog.Reader log) {
+        int best = -1;
+        for (int i = 0; i < log.labelCount; i++)
+            if (best < 0 || log.confidences[i] > log.confidences[best]) best = i;
+        return best >= 0 ? log.labels[best] : null;
+    }
+
+    private void mix(int v) {
+        for (int i = 0; i < 4; i++, v >>>= 8) digest = (digest ^ (v & 0xFF)) * FNV_PRIME;
+    }
+
+    /** FNV-1a hash over every decision the last replay made. */
+    public long digest() {
+        return digest;
+    }
+
+    public int frames() {
+        return frames;
+    }
+
+    public int results() {
+        return results;
+    }
+
+    public int decisions(FrameScheduler.Decision d) {
+        return decisions[d.ordinal()];
+    }
+
+    /** RESULT records whose recorded decision differs from the replayed one (SKIP if not delivered). */
+    public int decisionsChanged() {
+        return decisionsChanged;
+    }
+
+    public int groundFound() {
+        return groundFound;
+    }
+
+    public int groundRecorded() {
+        return groundRecorded;
+    }
+
+    public int announced() {
+        return announced;
+    }
+
+    public int hazardAlerts() {
+        return hazardAlerts;
+    }
+
+    public void report(StringBuilder sb) {
+        sb.append(String.format(Locale.ROOT,
+            "frames %d  results %d%n" +
+            "full %d  detect-only %d  skip %d  (differs from device on %d)%n" +
+            "ground %d found  %d recorded%n" +
+            "alerts %d  hazard %d%n" +
+            "digest %016x%n",
+            frames, results,
+            decisions[FrameScheduler.Decision.FULL.ordinal()],
+            decisions[FrameScheduler.Decision.DETECT_ONLY.ordinal()],
+            decisions[FrameScheduler.Decision.SKIP.ordinal()], decisionsChanged,
+            groundFound, groundRecorded, announced, hazardAlerts, digest));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: FrameReplayer <log> [repeats]");
+            System.exit(2);
+        }
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        FrameReplayer replayer = new FrameReplayer(250);
+        try (FrameLog.Reader log = new FrameLog.Reader(new File(args[0]))) {
+            long best = Long.MAX_VALUE, first = 0;
+            for (int i = 0; i < repeats; i++) {
+                long t0 = System.nanoTime();
+                replayer.replay(log);
+                best = Math.min(best, System.nanoTime() - t0);
+                if (i == 0) first = replayer.digest();
+                else if (replayer.digest() != first) throw new IllegalStateException("replay is not deterministic");
+            }
+            StringBuilder sb = new StringBuilder();
+            replayer.report(sb);
+            sb.append(String.format(Locale.ROOT, "%.1f us per frame (best of %d)%n",
+                best / 1e3 / Math.max(1, replayer.frames()), repeats));
+            System.out.print(sb);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.navassist;
+
+/**
+ * FrameScheduler — Decides per camera frame how much ML work is worth doing.
+ *
+ *   FULL         → every active stage (detector + labeler / OCR)
+ *   DETECT_ONLY  → only detector stages, to notice when the scene changes
+ *   SKIP         → close the frame untouched
+ *
+ * Inputs:
+ *   • view change   — SceneChangeDetector luma test on the raw frame; an
+ *                     unchanged view is skipped without touching ML Kit
+ *   • scene change  — fed back from the detector output (onDetections)
+ *   • cooldowns     — holdOff(until): nothing new will be spoken / vibrated
+ *                     before this time, so labeling a static scene is wasted
+ *   • device state  — thermal status and low battery stretch the minimum
+ *                     gap between analysed frames
+ *
+ * A static scene inside a cooldown only gets a detector pass every
+ * STATIC_DETECT_MS; a full pass is still forced every MAX_STALE_MS so the
+ * screen never shows a result older than that. All times are in ms.
+ *
+ * decide() only proposes: the schedule moves on accept(), once the frame has
+ * really been handed to the stages. A frame dropped after the decision (no
+ * free slot) leaves the next one due exactly as before.
+ */
+public class FrameScheduler {
+
+    public enum Decision { FULL, DETECT_ONLY, SKIP }
+
+    private static final long MAX_STALE_MS     = 3000;
+    private static final long STATIC_DETECT_MS = 200;
+
+    // Scene counts as static when the primary box moves less than this
+    private static final float STATIC_CENTER_DELTA = 0.04f;   // fraction of frame
+    private static final float STATIC_AREA_RATIO   = 0.25f;   // relative area change
+
+    // Mirrors PowerManager.THERMAL_STATUS_* without depending on Android
+    public static final int THERMAL_NONE     = 0;
+    public static final int THERMAL_MODERATE = 2;
+    public static final int THERMAL_SEVERE   = 3;
+    public static final int THERMAL_CRITICAL = 4;
+
+    private volatile int thermalStatus = THERMAL_NONE;
+    private volatile boolean batteryLow = false;
+    private volatile long quietUntil = 0;
+    private volatile boolean resetRequested = false;
+
+    // Analysis-thread state
+    private long lastRun = Long.MIN_VALUE / 2;
+    private long lastFull = Long.MIN_VALUE / 2;
+    private boolean sceneStatic = false;
+    private int prevCount = -1;
+    private float prevCx, prevCy, prevArea;
+    private Decision pending = Decision.SKIP;
+    private long pendingAt;
+
+    /**
+     * Called once per frame on the analysis thread before any ML work starts.
+     * viewChanged is the SceneChangeDetector verdict for this frame.
+     */
+    public Decision decide(long now, boolean viewChanged) {
+        if (resetRequested) {
+            resetRequested = false;
+            sceneStatic = false;
+            prevCount = -1;
+            quietUntil = 0;
+            lastFull = Long.MIN_VALUE / 2;
+        }
+        pending = Decision.SKIP;
+        if (now - lastRun < minIntervalMs()) return Decision.SKIP;
+
+        Decision d;
+        boolean stale = now - lastFull >= MAX_STALE_MS;
+        if (!stale && !viewChanged) return Decision.SKIP;
+        if (!stale && sceneStatic && now < quietUntil) {
+            if (now - lastRun < STATIC_DETECT_MS) return Decision.SKIP;
+            d = Decision.DETECT_ONLY;
+        } else {
+            d = Decision.FULL;
+        }
+        pending = d;
+        pendingAt = now;
+        return d;
+    }
+
+    /** The frame just decided on went to the stages: move the schedule on. */
+    public void accept() {
+        if (pending == Decision.SKIP) return;
+        lastRun = pendingAt;
+        if (pending == Decision.FULL) lastFull = pendingAt;
+        pending = Decision.SKIP;
+    }
+
+    /**
+     * Detector feedback for the frame just analysed. Position and area are
+     * normalised to the frame (0..1); count is the number of detected objects.
+     */
+    public void onDetections(int count, float cx, float cy, float area) {
+        sceneStatic = count == prevCount
+            && (count == 0
+                || (Math.abs(cx - prevCx) < STATIC_CENTER_DELTA
+                    && Math.abs(cy - prevCy) < STATIC_CENTER_DELTA
+                    && Math.abs(area - prevArea) <= prevArea * STATIC_AREA_RATIO));
+        prevCount = count;
+        prevCx = cx;
+        prevCy = cy;
+        prevArea = area;
+    }
+
+    /**
+     * The FULL pass just granted was not run (the quality gate rejected the
+     * frame), so a full pass is due again from time at, even if the view is
+     * still.
+     */
+    public void retryFull(long at) {
+        if (pending == Decision.FULL) pending = Decision.DETECT_ONLY;
+        lastFull = at - MAX_STALE_MS;
+    }
+
+    /** Nothing new will be announced before this time (speech / haptic cooldown). */
+    public void holdOff(long until) {
+        if (until > quietUntil) quietUntil = until;
+    }
+
+    public void setThermalStatus(int status) {
+        thermalStatus = status;
+    }
+
+    public void setBatteryLow(boolean low) {
+        batteryLow = low;
+    }
+
+    /** Forget scene history — call when the active stages change. Applied on the next frame. */
+    public void reset() {
+        resetRequested = true;
+    }
+
+    private long minIntervalMs() {
+        int t = thermalStatus;
+        if (t >= THERMAL_CRITICAL) return 1000;
+        if (t >= THERMAL_SEVERE)   return 500;
+        if (t >= THERMAL_MODERATE || batteryLow) return 250;
+        return 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.navassist;
+
+/**
+ * FrameTiming — Per-frame latency record written by FramePipeline.
+ *
+ *   queueNanos      → sensor exposure → analyze(), or -1 if the clocks differ
+ *   startNanos      → frame entered the pipeline (analyze() called)
+ *   stageNanos[i]   → time from stage i being submitted until its task completed,
+ *                     or CACHED if the stage did no work this frame (a result
+ *                     reused between model runs)
+ *   endNanos        → all stages joined (delivery may still wait for an
+ *                     earlier frame, see FramePipeline)
+ *
+ * In parallel mode every stage is submitted at startNanos, so the frame
+ * latency is roughly the slowest stage; in sequential mode it is their sum.
+ */
+public class FrameTiming {
+
+    public static final long CACHED = -1;
+
+    public final boolean parallel;
+    public final long startNanos;
+    public final String[] stages;
+    public final long[] stageNanos;
+    public long queueNanos = -1;
+    public long endNanos;
+
+    public FrameTiming(boolean parallel, long startNanos, String[] stages) {
+        this.parallel = parallel;
+        this.startNanos = startNanos;
+        this.stages = stages;
+        this.stageNanos = new long[stages.length];
+    }
+
+    public long totalNanos() {
+        return endNanos - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+            .append(parallel ? "parallel " : "sequential ")
+            .append(millis(totalNanos())).append(" ms [");
+        for (int i = 0; i < stages.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(stages[i]).append(' ');
+            if (stageNanos[i] == CACHED) sb.append("cached");
+            else sb.append(millis(stageNanos[i]));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(Math.round(nanos / 100_000.0) / 10.0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * FrameTriage — The part of FramePipeline that runs before any ML work, on
+ * nothing but the frame's Y plane.
+ *
+ *   decide(y, …, now, busy) → SKIP, DETECT_ONLY or FULL
+ *
+ *   1. SceneChangeDetector → has the view changed since the last analysed frame?
+ *   2. FrameScheduler      → is the frame worth any work, and how much?
+ *   3. FrameQualityGate    → a FULL frame that is blurred or badly exposed
+ *                            drops to DETECT_ONLY, and a full pass is due
+ *                            again RETRY_MS later. A view that stays bad —
+ *                            a plain wall, a dark doorway — is often the
+ *                            closest obstacle, so after MAX_REJECTS rejects
+ *                            in a row or MAX_REJECT_MS the frame goes
+ *                            through anyway. Low sharpness is not blur while
+ *                            the detector sees a very close box: a near
+ *                            surface filling the view has no texture
+ *   4. busy                → a full pass is still in flight: a FULL frame
+ *                            drops to DETECT_ONLY too, so hazard detection
+ *                            is never stuck behind labeling or OCR. The
+ *                            schedule is left alone — the pass in flight is
+ *                            the refresh, and once it lands the next changed
+ *                            frame is FULL again
+ *
+ * accept() once the frame has really been handed to the stages — only then
+ * do the scheduler and the reference view move on; onScene()
+ * with the detector output of every delivered frame. Every step is counted
+ * in PipelineMetrics.
+ *
+ * Pure Java, so FrameReplayer runs exactly the code the camera runs.
+ * Analysis thread only, apart from the scheduler's own thread-safe setters.
+ */
+public class FrameTriage {
+
+    private final SceneChangeDetector sceneChange = new SceneChangeDetector();
+    private final FrameScheduler scheduler = new FrameScheduler();
+    private final FrameQualityGate qualityGate = new FrameQualityGate();
+    private final PipelineMetrics metrics;
+
+    private static final int MAX_REJECTS = 5;
+    private static final long MAX_REJECT_MS = 1000;
+    private static final long RETRY_MS = 500;
+
+    private int rejects;
+    private long firstReject;
+    private boolean closeObject;
+
+    public FrameTriage(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public FrameScheduler.Decision decide(ByteBuffer y, int width, int height, int rowStride, int pixelStride,
+                                          long now, boolean busy) {
+        boolean viewChanged = sceneChange.update(y, width, height, rowStride, pixelStride);
+        FrameScheduler.Decision decision = scheduler.decide(now, viewChanged);
+        if (decision == FrameScheduler.Decision.FULL) {
+            int quality = qualityGate.check(y, width, height, rowStride, pixelStride);
+            metrics.onQuality(quality, qualityGate.lastSharpness(), qualityGate.lastMean());
+            if (quality == FrameQualityGate.BLURRY && closeObject) quality = FrameQualityGate.OK;
+            if (quality == FrameQualityGate.OK) {
+                rejects = 0;
+            } else if (rejects == 0 || (rejects < MAX_REJECTS && now - firstReject < MAX_REJECT_MS)) {
+                if (rejects++ == 0) firstReject = now;
+                scheduler.retryFull(now + RETRY_MS);
+                decision = FrameScheduler.Decision.DETECT_ONLY;
+            } else {
+                rejects = 0;   // still bad, but a full pass is better than none
+            }
+        }
+        if (decision == FrameScheduler.Decision.FULL && busy) {
+            decision = FrameScheduler.Decision.DETECT_ONLY;
+            metrics.onDemoted();
+        }
+        metrics.onDecision(decision);
+        return decision;
+    }
+
+    /** The frame just decided on went to the stages; it is the new reference view. */
+    public void accept() {
+        scheduler.accept();
+        sceneChange.accept();
+    }
+
+    /** Detector output of a delivered frame, for the scheduler's static-scene test. */
+    public void onScene(SceneModel s) {
+        closeObject = false;
+        for (int i = 0; i < s.count; i++) closeObject |= s.distance[i] == SceneModel.DIST_VERY_CLOSE;
+        int p = s.priorityIndex(false);
+        if (p < 0) { scheduler.onDetections(0, 0f, 0f, 0f); return; }
+        float cy = (s.top[p] + s.bottom[p]) * 0.5f / s.height;
+        scheduler.onDetections(s.count, s.centerX(p), cy, s.area(p));
+    }
+
+    public FrameScheduler scheduler() {
+        return scheduler;
+    }
+
+    public FrameQualityGate qualityGate() {
+        return qualityGate;
+    }
+}
@@ -0,0 +1,246 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * GroundAnalyzer — Steps and drop-offs in the walking path, from luma alone.
+ *
+ * The lower BAND of the upright frame (the ground just ahead) is sampled on
+ * a GRID_W × GRID_H grid, each sample a 2×2 box average of the Y plane. The
+ * grid is scanned for one boundary running across the path:
+ *
+ *   STEP     → a riser: a band RISER_MIN–RISER_MAX rows deep (kerb face,
+ *              stair riser) whose every row differs by EDGE_MIN, in the same
+ *              direction, from the mean of DEPTH rows of ground on both sides
+ *              of it, over at least MIN_COVER of the columns. The band may
+ *              run up to SLANT rows aslant across the grid, as it does with
+ *              the phone rolled a few degrees. A single edge that stays at
+ *              its new level — a shadow's edge, floor meeting wall — is not
+ *              a step, and lines thinner than RISER_MIN rows (tile grout)
+ *              are not risers. A shadow band as deep as a riser
+ *              still reads as one; luma alone cannot tell them apart.
+ *   DROP_OFF → the textured ground stops: beyond the line the texture,
+ *              relative to the luma, falls below TEXTURE_LOSS of the texture
+ *              before it, and the luma shifts by DROP_LUMA too (hole,
+ *              platform or kerb edge, open water). Relative, because a shadow
+ *              scales texture and luma together.
+ *
+ *   analyze(y, width, height, rowStride, pixelStride, rotation)
+ *       → NONE, STEP or DROP_OFF, confirmed over CONFIRM runs in a row with
+ *         the line where it was, or up to MAX_SHIFT rows nearer the feet
+ *         (at walking pace it slides that far between runs of a 400 ms
+ *         cadence)
+ *   side() / distance() → SceneModel buckets for the confirmed finding
+ *   Finding             → the three together, for FrameResult.ground
+ *
+ * rotation is the frame's upright rotation (0, 90, 180, 270); the grid is
+ * laid out in upright space and mapped back onto the sensor plane, so the
+ * Y plane is read as delivered. About 5 000 absolute ByteBuffer reads per
+ * call, fixed arrays, no allocation. Pure Java, so recorded frames can be
+ * run through it on the JVM. Not thread-safe — one instance per pipeline.
+ */
+public class GroundAnalyzer {
+
+    public static final int NONE = 0;
+    public static final int STEP = 1;
+    public static final int DROP_OFF = 2;
+
+    private static final int GRID_W = 40, GRID_H = 30;
+    private static final float BAND = 0.45f;          // lower share of the upright frame
+    private static final float MARGIN = 0.08f;        // left / right edges skipped (vignetting)
+    private static final int DEPTH = 3;               // rows averaged on each side of a line
+    private static final int RISER_MIN = 2, RISER_MAX = 8;   // rows
+    private static final int EDGE_MIN = 28;           // luma step, 0–255
+    private static final float MIN_COVER = 0.6f;      // share of columns that must agree
+    private static final int SLANT = 2;               // rows a riser may drop or rise across the band
+    private static final float TEXTURE_LOSS = 0.35f;
+    private static final int MIN_TEXTURE = 5;         // ground this flat has nothing to lose
+    private static final int DROP_LUMA = 16;
+    private static final int BLACK = 48;              // luma offset, so noise in near-black ground is not texture
+    private static final int CONFIRM = 2;
+    private static final int MAX_SHIFT = GRID_H / 2;  // rows a line may move down between runs
+
+    private final int[] grid = new int[GRID_W * GRID_H];
+    private final int[] colSum = new int[GRID_W * (GRID_H + 1)];   // luma prefix sums down each column
+    private final int[] texSum = new int[GRID_W * (GRID_H + 1)];   // texture prefix sums down each column
+    private final int[] up = new int[RISER_MAX + 1], down = new int[RISER_MAX + 1];   // riser votes per depth
+    private final int[] upX = new int[RISER_MAX + 1], downX = new int[RISER_MAX + 1];
+
+    private int candidate = NONE, candidateRow, streak;
+    private int side = SceneModel.SIDE_CENTER, distance = SceneModel.DIST_FAR;
+
+    /** Analyses one Y plane; returns the confirmed finding. */
+    public int analyze(ByteBuffer y, int width, int height, int rowStride, int pixelStride, int rotation) {
+        boolean swap = rotation == 90 || rotation == 270;
+        int uprightW = swap ? height : width, uprightH = swap ? width : height;
+        if (uprightW < GRID_W * 2 || uprightH < GRID_H * 4) return reset();
+        sample(y, width, height, rowStride, pixelStride, rotation, uprightW, uprightH);
+        prefixSums();
+
+        int need = (int) (GRID_W * MIN_COVER);
+        int bestKind = NONE, bestRow = 0, bestVotes = 0, bestCenter = 0;
+        for (int r = DEPTH; r <= GRID_H - DEPTH; r++) {
+            int drop = 0, dropX = 0;
+            for (int c = 0; c < GRID_W - 1; c++) {
+                int far = colSum[r * GRID_W + c] - colSum[(r - DEPTH) * GRID_W + c];
+                int near = colSum[(r + DEPTH) * GRID_W + c] - colSum[r * GRID_W + c];
+                int texFar = texSum[r * GRID_W + c] - texSum[(r - DEPTH) * GRID_W + c];
+                int texNear = texSum[(r + DEPTH) * GRID_W + c] - texSum[r * GRID_W + c];
+                if (texNear >= MIN_TEXTURE * DEPTH && Math.abs(near - far) >= DROP_LUMA * DEPTH
+                        && texFar * (float) (near + BLACK * DEPTH)
+                           < TEXTURE_LOSS * texNear * (far + BLACK * DEPTH)) {
+                    drop++;
+                    dropX += c;
+                }
+            }
+            if (drop >= need && (bestKind != DROP_OFF || drop > bestVotes)) {
+                bestKind = DROP_OFF; bestRow = r; bestVotes = drop; bestCenter = dropX / drop;
+                continue;
+            }
+            if (bestKind == DROP_OFF) continue;
+
+            // Riser in rows [r, r + h), ground on both sides. Every riser row
+            // must stand out, so one row across a grout line does not count.
+            // The phone is never held quite level: the line may run aslant,
+            // s rows lower at the right edge than at the left
+            for (int s = -SLANT; s <= SLANT; s++) {
+                if (r + Math.min(0, s) < DEPTH) continue;
+                int maxH = Math.min(RISER_MAX, GRID_H - DEPTH - r - Math.max(0, s));
+                if (maxH < RISER_MIN) continue;
+                Arrays.fill(up, 0); Arrays.fill(down, 0); Arrays.fill(upX, 0); Arrays.fill(downX, 0);
+                for (int c = 0; c < GRID_W; c++) {
+                    int r0 = r + Math.round((float) (s * c) / (GRID_W - 1));
+                    int far = (colSum[r0 * GRID_W + c] - colSum[(r0 - DEPTH) * GRID_W + c]) / DEPTH;
+                    int lo = 255, hi = 0;
+                    for (int h = 1; h <= maxH; h++) {
+                        int g = grid[(r0 + h - 1) * GRID_W + c];
+                        if (g < lo) lo = g;
+                        if (g > hi) hi = g;
+                        // lo only falls and hi only rises: a column that stops
+                        // standing out from the far side never votes deeper
+                        if (lo - far < EDGE_MIN && far - hi < EDGE_MIN) break;
+                        if (h < RISER_MIN) continue;
+                        int near = (colSum[(r0 + h + DEPTH) * GRID_W + c] - colSum[(r0 + h) * GRID_W + c]) / DEPTH;
+                        if (lo - far >= EDGE_MIN && lo - near >= EDGE_MIN) { up[h]++; upX[h] += c; }
+                        else if (far - hi >= EDGE_MIN && near - hi >= EDGE_MIN) { down[h]++; downX[h] += c; }
+                    }
+                }
+                for (int h = RISER_MIN; h <= maxH; h++) {
+                    int votes = Math.max(up[h], down[h]);
+                    if (votes >= need && votes > bestVotes) {
+                        // The foot of the riser, mid-frame, is where the step is
+                        bestKind = STEP; bestRow = r + s / 2 + h; bestVotes = votes;
+                        bestCenter = (up[h] >= down[h] ? upX[h] : downX[h]) / votes;
+                    }
+                }
+            }
+        }
+        return confirm(bestKind, bestRow, bestCenter);
+    }
+
+    /** Side of the path the confirmed line is centred on (SceneModel.SIDE_*). */
+    public int side() {
+        return side;
+    }
+
+    /** How far ahead the confirmed line is (SceneModel.DIST_*), from its height in the band. */
+    public int distance() {
+        return distance;
+    }
+
+    public int reset() {
+        candidate = NONE;
+        streak = 0;
+        return NONE;
+    }
+
+    /** A confirmed step or drop-off, as handed to listeners. */
+    public static final class Finding {
+        public final int kind, side, distance;
+
+        public Finding(int kind, int side, int distance) {
+            this.kind = kind;
+            this.side = side;
+            this.distance = distance;
+        }
+
+        /** What to call it in speech and on screen. */
+        public String name() {
+            return kind == DROP_OFF ? "drop-off" : "step";
+        }
+
+        /** Hazard level — the vocabulary's level for "hole" / "stairs", at least 1. */
+        public int level() {
+            return Math.max(1, Hazards.priority(kind == DROP_OFF ? "hole" : "step"));
+        }
+
+        /** "straight ahead, nearby" */
+        public String position() {
+            return SceneModel.positionText(side, distance);
+        }
+    }
+
+    // ── Sampling ─────────────────────────────────────────────────────────────
+
+    // Upright grid → sensor plane; 2×2 box per sample so texture does not alias
+    private void sample(ByteBuffer y, int width, int height, int rowStride, int pixelStride, int rotation,
+                        int uprightW, int uprightH) {
+        int u0 = (int) (uprightW * MARGIN), u1 = uprightW - 2 - u0;
+        int v0 = (int) (uprightH * (1 - BAND)), v1 = uprightH - 2;
+        for (int gy = 0; gy < GRID_H; gy++) {
+            int v = v0 + (v1 - v0) * gy / (GRID_H - 1);
+            for (int gx = 0; gx < GRID_W; gx++) {
+                int u = u0 + (u1 - u0) * gx / (GRID_W - 1);
+                int sx, sy;
+                switch (rotation) {
+                    case 90:  sx = v;             sy = height - 2 - u; break;
+                    case 180: sx = width - 2 - u; sy = height - 2 - v; break;
+                    case 270: sx = width - 2 - v; sy = u;              break;
+                    default:  sx = u;             sy = v;              break;
+                }
+                int i = sy * rowStride + sx * pixelStride;
+                grid[gy * GRID_W + gx] = ((y.get(i) & 0xFF) + (y.get(i + pixelStride) & 0xFF)
+                    + (y.get(i + rowStride) & 0xFF) + (y.get(i + rowStride + pixelStride) & 0xFF)) >> 2;
+            }
+        }
+    }
+
+    // Column prefix sums of luma and of texture (horizontal gradient, so a line
+    // across the path does not count as texture on either side of itself)
+    private void prefixSums() {
+        for (int c = 0; c < GRID_W; c++) {
+            colSum[c] = 0;
+            texSum[c] = 0;
+        }
+        for (int r = 0; r < GRID_H; r++) {
+            int row = r * GRID_W, next = row + GRID_W;
+            for (int c = 0; c < GRID_W; c++) {
+                int g = grid[row + c];
+                int tex = c < GRID_W - 1 ? Math.abs(grid[row + c + 1] - g) : 0;
+                colSum[next + c] = colSum[row + c] + g;
+                texSum[next + c] = texSum[row + c] + tex;
+            }
+        }
+    }
+
+    // ── Confirmation ─────────────────────────────────────────────────────────
+
+    private int confirm(int kind, int row, int center) {
+        if (kind == NONE) return reset();
+        // The line drifts down the band as the user walks towards it
+        if (kind == candidate && row >= candidateRow - 1 && row <= candidateRow + MAX_SHIFT) {
+            streak++;
+        } else {
+            candidate = kind;
+            streak = 1;
+        }
+        candidateRow = row;
+        if (streak < CONFIRM) return NONE;
+        side = SceneModel.sideOf((center + 0.5f) / GRID_W);
+        distance = row > GRID_H * 2 / 3 ? SceneModel.DIST_VERY_CLOSE
+                 : row > GRID_H / 3     ? SceneModel.DIST_NEARBY
+                 : SceneModel.DIST_FEW_METERS;
+        return kind;
+    }
+}
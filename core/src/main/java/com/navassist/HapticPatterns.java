@@ -0,0 +1,116 @@
+package com.navassist;
+
+/**
+ * HapticPatterns — The vibration waveforms HapticEngine plays, and how long
+ * each one keeps the motor busy.
+ *
+ * A waveform is a Vibrator timings array in ms: [delay, on, off, on, off, …].
+ *
+ *   pulses(n)         → n countable pulses, PULSE_ON on / PULSE_OFF off
+ *   direction(dir)    → RIGHT 1, LEFT 2, BACK 3, FRONT 4 pulses
+ *   hazard()          → the rapid 5-pulse danger burst
+ *   hazard(dir)       → burst, HAZARD_GAP, then the direction pulses, as one
+ *                       waveform so no timer sits in between
+ *   directionOf(side) → SceneModel side → the direction to pulse
+ *
+ * directionMs() / hazardMs() are what AlertScheduler is told an alert lasts.
+ * Every direction and hazard waveform is built once and shared, so an alert
+ * allocates nothing here — callers must not modify the returned arrays.
+ * Pure Java; HapticEngine owns the Vibrator.
+ */
+public final class HapticPatterns {
+
+    private HapticPatterns() {}
+
+    public static final String DIR_RIGHT  = "right";
+    public static final String DIR_LEFT   = "left";
+    public static final String DIR_BACK   = "back";
+    public static final String DIR_FRONT  = "front";
+
+    // Pulse: clearly separable even for light users
+    private static final long PULSE_ON = 110, PULSE_OFF = 160;
+    private static final long[] HAZARD = {0, 80,60, 80,60, 80,60, 80,60, 80, 0};
+    private static final long HAZARD_GAP = 300;   // burst → direction pulses
+    private static final int MAX_DIRECTION_PULSES = 4;
+
+    private static final long[][] PULSES = new long[MAX_DIRECTION_PULSES + 1][];
+    private static final long[][] HAZARD_THEN = new long[MAX_DIRECTION_PULSES + 1][];
+    static {
+        for (int n = 1; n <= MAX_DIRECTION_PULSES; n++) {
+            PULSES[n] = buildPulses(n);
+            HAZARD_THEN[n] = buildHazard(n);
+        }
+    }
+
+    /** count countable pulses; 0 or less → null (nothing to play). */
+    public static long[] pulses(int count) {
+        if (count <= 0) return null;
+        return count <= MAX_DIRECTION_PULSES ? PULSES[count] : buildPulses(count);
+    }
+
+    public static long[] direction(String dir) {
+        return PULSES[pulseCount(dir)];
+    }
+
+    public static long[] hazard() {
+        return HAZARD;
+    }
+
+    public static long[] hazard(String dir) {
+        return HAZARD_THEN[pulseCount(dir)];
+    }
+
+    public static String directionOf(int side) {
+        switch (side) {
+            case SceneModel.SIDE_LEFT:  return DIR_LEFT;
+            case SceneModel.SIDE_RIGHT: return DIR_RIGHT;
+            default:                    return DIR_FRONT;
+        }
+    }
+
+    /** How long direction(dir) vibrates. */
+    public static long directionMs(String dir) {
+        return pulseCount(dir) * (PULSE_ON + PULSE_OFF);
+    }
+
+    /** How long hazard() vibrates; hazard(dir) adds HAZARD_GAP and directionMs(dir). */
+    public static long hazardMs() {
+        long ms = 0;
+        for (long t : HAZARD) ms += t;
+        return ms;
+    }
+
+    public static long hazardMs(String dir) {
+        return hazardMs() + HAZARD_GAP + directionMs(dir);
+    }
+
+    private static int pulseCount(String dir) {
+        switch (dir) {
+            case DIR_RIGHT: return 1;
+            case DIR_LEFT:  return 2;
+            case DIR_BACK:  return 3;
+            case DIR_FRONT:
+            default:        return 4;
+        }
+    }
+
+    private static long[] buildPulses(int count) {
+        long[] p = new long[1 + count * 2];
+        for (int i = 0; i < count; i++) {
+            p[1 + i * 2] = PULSE_ON;
+            p[2 + i * 2] = PULSE_OFF;
+        }
+        return p;
+    }
+
+    private static long[] buildHazard(int count) {
+        long[] p = new long[HAZARD.length + count * 2];
+        System.arraycopy(HAZARD, 0, p, 0, HAZARD.length);
+        p[HAZARD.length - 1] = HAZARD_GAP;
+        for (int i = 0; i < count; i++) {
+            p[HAZARD.length + i * 2]     = PULSE_ON;
+            p[HAZARD.length + i * 2 + 1] = PULSE_OFF;
+        }
+        return p;
+    }
+}
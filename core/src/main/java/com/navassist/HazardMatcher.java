@@ -0,0 +1,264 @@
+package com.navassist;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HazardMatcher — Finds hazard terms in a label in one pass (Aho-Corasick).
+ *
+ * Vocabulary, one hazard per line ('#' starts a comment):
+ *
+ *   <priority> <canonical>: <synonym>, <synonym>, …
+ *   3 stairs: step, staircase, escalator
+ *
+ * Matching is on whole words: labels are folded to lower-case letters and
+ * digits with every other run of characters as a single word break, and each
+ * term is compiled as " term " (plus plural "s" / "es" forms), so "person"
+ * matches "Person" and "two persons" but not "personal computer", and
+ * "traffic cone" matches as a phrase.
+ *
+ *   match(label) → term with the highest priority in the label, or NONE
+ *   canonical(term) / priority(term)
+ *
+ * The automaton is a dense transition table over ALPHABET symbols built
+ * once; a lookup reads each label character once, allocates nothing and is
+ * safe to share between threads.
+ */
+public final class HazardMatcher {
+
+    public static final int NONE = -1;
+
+    // 0 = word break, 1..26 = a..z, 27..36 = 0..9, 37 = any other letter
+    private static final int ALPHABET = 38;
+    private static final int BREAK = 0;
+
+    private final String[] canonical;
+    private final int[] priority;
+    private final int[] next;      // state * ALPHABET + symbol → state
+    private final int[] best;      // state → best term ending here or on its suffix chain
+    private final int topPriority;
+
+    private HazardMatcher(String[] canonical, int[] priority, int[] next, int[] best) {
+        this.canonical = canonical;
+        this.priority = priority;
+        this.next = next;
+        this.best = best;
+        int top = 0;
+        for (int p : priority) top = Math.max(top, p);
+        this.topPriority = top;
+    }
+
+    /** Compiles a vocabulary in the format above. */
+    public static HazardMatcher parse(Reader vocabulary) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Integer> levels = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        BufferedReader in = new BufferedReader(vocabulary);
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            int space = line.indexOf(' ');
+            int colon = line.indexOf(':');
+            if (space < 0) throw new IOException("line " + lineNo + ": expected '<priority> <name>'");
+            int level;
+            try {
+                level = Integer.parseInt(line.substring(0, space));
+            } catch (NumberFormatException e) {
+                throw new IOException("line " + lineNo + ": bad priority", e);
+            }
+            if (level <= 0) throw new IOException("line " + lineNo + ": priority must be > 0");
+            String name = (colon < 0 ? line.substring(space) : line.substring(space, colon)).trim();
+            int term = names.size();
+            names.add(name);
+            levels.add(level);
+            patterns.add(name);
+            owners.add(term);
+            if (colon >= 0) {
+                for (String syn : line.substring(colon + 1).split(",")) {
+                    syn = syn.trim();
+                    if (syn.isEmpty()) continue;
+                    patterns.add(syn);
+                    owners.add(term);
+                }
+            }
+        }
+        int[] pr = new int[levels.size()];
+        for (int i = 0; i < pr.length; i++) pr[i] = levels.get(i);
+        return build(names.toArray(new String[0]), pr, patterns, owners);
+    }
+
+    /** parse() for a vocabulary held in a string. */
+    public static HazardMatcher of(String vocabulary) {
+        try {
+            return parse(new StringReader(vocabulary));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /** Highest-priority term found in the label (earliest on ties), or NONE. */
+    public int match(CharSequence label) {
+        if (label == null) return NONE;
+        int state = next[BREAK];   // a label starts on a word break
+        int found = NONE;
+        boolean lastBreak = true;
+        for (int i = 0, n = label.length(); i <= n; i++) {
+            int sym = i == n ? BREAK : symbol(label.charAt(i));
+            if (sym == BREAK) {
+                if (lastBreak && i < n) continue;   // runs of breaks count once
+                lastBreak = true;
+            } else {
+                lastBreak = false;
+            }
+            state = next[state * ALPHABET + sym];
+            int t = best[state];
+            if (t != NONE && (found == NONE || priority[t] > priority[found])) {
+                found = t;
+                if (priority[t] == topPriority) return found;
+            }
+        }
+        return found;
+    }
+
+    public boolean isHazard(CharSequence label) {
+        return match(label) != NONE;
+    }
+
+    /** Priority of the best term in the label, 0 when there is none. */
+    public int priorityOf(CharSequence label) {
+        int t = match(label);
+        return t == NONE ? 0 : priority[t];
+    }
+
+    public String canonical(int term) {
+        return canonical[term];
+    }
+
+    public int priority(int term) {
+        return priority[term];
+    }
+
+    public int terms() {
+        return canonical.length;
+    }
+
+    // ── Building ─────────────────────────────────────────────────────────────
+
+    private static HazardMatcher build(String[] names, int[] levels,
+                                       List<String> patterns, List<Integer> owners) {
+        // Trie over " pattern " and its plurals
+        List<int[]> children = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        children.add(newNode());
+        output.add(NONE);
+        for (int p = 0; p < patterns.size(); p++) {
+            int[] word = fold(patterns.get(p));
+            if (word.length == 0) continue;
+            int owner = owners.get(p);
+            insert(children, output, word, null, owner, levels);
+            insert(children, output, word, new int[] { symbol('s') }, owner, levels);
+            insert(children, output, word, new int[] { symbol('e'), symbol('s') }, owner, levels);
+        }
+
+        // Breadth-first: failure links, full transition table, best output
+        int states = children.size();
+        int[] next = new int[states * ALPHABET];
+        int[] fail = new int[states];
+        int[] best = new int[states];
+        for (int s = 0; s < states; s++) best[s] = output.get(s);
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        int[] root = children.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = root[c];
+            if (child > 0) {
+                next[c] = child;
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int s = queue[head++];
+            int f = fail[s];
+            best[s] = better(best[s], best[f], levels);
+            int[] kids = children.get(s);
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = kids[c];
+                if (child > 0) {
+                    next[s * ALPHABET + c] = child;
+                    fail[child] = next[f * ALPHABET + c];
+                    queue[tail++] = child;
+                } else {
+                    next[s * ALPHABET + c] = next[f * ALPHABET + c];
+                }
+            }
+        }
+        return new HazardMatcher(names, levels, next, best);
+    }
+
+    private static void insert(List<int[]> children, List<Integer> output, int[] word, int[] suffix,
+                               int owner, int[] levels) {
+        int s = step(children, output, 0, BREAK);
+        for (int c : word) s = step(children, output, s, c);
+        if (suffix != null) for (int c : suffix) s = step(children, output, s, c);
+        s = step(children, output, s, BREAK);
+        output.set(s, better(output.get(s), owner, levels));
+    }
+
+    private static int step(List<int[]> children, List<Integer> output, int s, int c) {
+        int[] kids = children.get(s);
+        if (kids[c] == 0) {
+            kids[c] = children.size();
+            children.add(newNode());
+            output.add(NONE);
+        }
+        return kids[c];
+    }
+
+    private static int[] newNode() {
+        return new int[ALPHABET];
+    }
+
+    private static int better(int a, int b, int[] levels) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        return levels[b] > levels[a] ? b : a;
+    }
+
+    // Pattern text → symbols, runs of breaks collapsed, no leading / trailing break
+    private static int[] fold(String text) {
+        int[] out = new int[text.length()];
+        int n = 0;
+        boolean pendingBreak = false;
+        for (int i = 0; i < text.length(); i++) {
+            int sym = symbol(text.charAt(i));
+            if (sym == BREAK) {
+                pendingBreak = n > 0;
+                continue;
+            }
+            if (pendingBreak) out[n++] = BREAK;
+            pendingBreak = false;
+            out[n++] = sym;
+        }
+        int[] word = new int[n];
+        System.arraycopy(out, 0, word, 0, n);
+        return word;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return 1 + c - 'a';
+        if (c >= 'A' && c <= 'Z') return 1 + c - 'A';
+        if (c >= '0' && c <= '9') return 27 + c - '0';
+        return c > 0x7F && Character.isLetter(c) ? 37 : BREAK;
+    }
+}
@@ -0,0 +1,47 @@
+package com.navassist;
+
+/**
+ * Hazards — Walking-hazard vocabulary shared by the camera screens and the
+ * scene model. A label counts as a hazard when it contains a vocabulary term
+ * as a whole word (see HazardMatcher).
+ *
+ * Priority levels rank what to warn about first:
+ *   3 → drops and traffic (stairs, holes, curbs, vehicles)
+ *   2 → fixed obstacles (poles, walls, doors, works)
+ *   1 → things to be aware of (people, animals, wet ground)
+ *
+ * DEFAULT_VOCABULARY is compiled once; use() swaps in another vocabulary,
+ * e.g. one bundled as an asset (see ModelManager).
+ */
+public final class Hazards {
+
+    private Hazards() {}
+
+    public static final String DEFAULT_VOCABULARY =
+        "3 stairs: step, staircase, escalator\n" +
+        "3 hole: gap, pit, pothole, ditch, manhole, drain\n" +
+        "3 curb: kerb\n" +
+        "3 vehicle: car, truck, bus, motorcycle, bicycle, scooter, wheel\n" +
+        "2 obstacle: barrier, wall, fence, pole, pillar, column, rock, stone\n" +
+        "2 door: gate\n" +
+        "2 construction: cone, traffic cone, cable, wire\n" +
+        "2 bump: speed bump, crack, slope, ramp\n" +
+        "1 person: human, crowd\n" +
+        "1 animal: dog, cat, bird\n" +
+        "1 puddle: water, mud\n";
+
+    private static volatile HazardMatcher matcher = HazardMatcher.of(DEFAULT_VOCABULARY);
+
+    public static void use(HazardMatcher vocabulary) {
+        matcher = vocabulary;
+    }
+
+    public static boolean isHazard(String label) {
+        return matcher.isHazard(label);
+    }
+
+    /** Priority of the most urgent hazard in the label, 0 if it is not a hazard. */
+    public static int priority(String label) {
+        return matcher.priorityOf(label);
+    }
+}
@@ -0,0 +1,106 @@
+package com.navassist;
+
+/**
+ * LabelCache — ImageLabeler results remembered per ML Kit tracking ID.
+ *
+ * While ObjectDetector keeps reporting the same tracking ID, the object has
+ * not changed, so its label is reused until refreshMs has passed. Entries:
+ *   fresh    → labeled less than refreshMs ago, skip the labeler
+ *   stale    → still returned, but the labeler should run again
+ *   lost     → tracking ID not seen for lostMs, evicted by evictLost()
+ * "Nothing recognised" is cached too (label == null) so an unnamed object is
+ * not re-labeled every frame.
+ *
+ * Bounded: when full, the least recently seen entry is replaced. Backed by
+ * fixed parallel arrays with linear lookup — capacity is tiny (a handful of
+ * tracked objects) and nothing is allocated per frame. All times in ms.
+ */
+public class LabelCache {
+
+    private final int capacity;
+    private final long refreshMs, lostMs;
+
+    private final int[] ids;
+    private final String[] labels;
+    private final float[] confidences;
+    private final long[] labeledAt, seenAt;
+    private int size;
+
+    public LabelCache(int capacity, long refreshMs, long lostMs) {
+        this.capacity = capacity;
+        this.refreshMs = refreshMs;
+        this.lostMs = lostMs;
+        ids = new int[capacity];
+        labels = new String[capacity];
+        confidences = new float[capacity];
+        labeledAt = new long[capacity];
+        seenAt = new long[capacity];
+    }
+
+    /** Index of the entry for this tracking ID, or -1. Marks it as seen. */
+    public int lookup(int trackingId, long now) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == trackingId) {
+                seenAt[i] = now;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isFresh(int entry, long now) {
+        return entry >= 0 && now - labeledAt[entry] < refreshMs;
+    }
+
+    public String label(int entry) {
+        return labels[entry];
+    }
+
+    public float confidence(int entry) {
+        return confidences[entry];
+    }
+
+    public void put(int trackingId, String label, float confidence, long now) {
+        int i = lookup(trackingId, now);
+        if (i < 0) {
+            if (size < capacity) i = size++;
+            else i = leastRecentlySeen();
+            ids[i] = trackingId;
+        }
+        labels[i] = label;
+        confidences[i] = confidence;
+        labeledAt[i] = now;
+        seenAt[i] = now;
+    }
+
+    /** Drops entries whose tracking ID has not been seen for lostMs. */
+    public void evictLost(long now) {
+        for (int i = size - 1; i >= 0; i--)
+            if (now - seenAt[i] > lostMs) removeAt(i);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) labels[i] = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int leastRecentlySeen() {
+        int oldest = 0;
+        for (int i = 1; i < size; i++) if (seenAt[i] < seenAt[oldest]) oldest = i;
+        return oldest;
+    }
+
+    private void removeAt(int i) {
+        int last = --size;
+        ids[i] = ids[last];
+        labels[i] = labels[last];
+        confidences[i] = confidences[last];
+        labeledAt[i] = labeledAt[last];
+        seenAt[i] = seenAt[last];
+        labels[last] = null;
+    }
+}
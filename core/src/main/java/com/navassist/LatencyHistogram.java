@@ -0,0 +1,82 @@
+package com.navassist;
+
+/**
+ * LatencyHistogram — Fixed-memory latency histogram in the style of HdrHistogram.
+ *
+ * Values are recorded in microseconds into log-linear buckets: every power
+ * of two is split into SUB_BUCKETS linear steps, so any recorded value is
+ * known to within 1/SUB_BUCKETS (~6%) from 1 µs up to ~19 hours. Recording
+ * is a few shifts and an array increment — no allocation, safe on the hot
+ * path. Count, mean and max are exact; percentiles are bucket-accurate.
+ *
+ * Not synchronized; PipelineMetrics guards its histograms.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;   // 16
+    private static final int MAGNITUDES = 32;
+    private static final int BUCKETS = SUB_BUCKETS * (MAGNITUDES + 1);
+    private static final long MAX_MICROS = (1L << (MAGNITUDES + SUB_BITS)) - 1;   // 2^36 µs ≈ 19 h
+
+    private final long[] counts = new long[BUCKETS];
+    private long count, sumMicros, maxMicros;
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(long micros) {
+        if (micros < 0) return;
+        if (micros > MAX_MICROS) micros = MAX_MICROS;
+        counts[indexOf(micros)]++;
+        count++;
+        sumMicros += micros;
+        if (micros > maxMicros) maxMicros = micros;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    public long meanMicros() {
+        return count == 0 ? 0 : sumMicros / count;
+    }
+
+    /** Value at the given percentile (0–100), as the upper edge of its bucket, capped at max. */
+    public long percentileMicros(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperEdge(i), maxMicros);
+        }
+        return maxMicros;
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = sumMicros = maxMicros = 0;
+    }
+
+    // Below SUB_BUCKETS every value has its own bucket; above, the top
+    // SUB_BITS bits after the leading one pick the step within its magnitude
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        int sub = (int) (v >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperEdge(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
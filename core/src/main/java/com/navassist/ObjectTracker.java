@@ -0,0 +1,293 @@
+package com.navassist;
+
+/**
+ * ObjectTracker — Smooths SceneModel detections across frames.
+ *
+ * Association (per frame):
+ *   1. same ML Kit tracking ID as an existing track
+ *   2. otherwise the unmatched track with the best IoU ≥ MIN_IOU
+ *   3. otherwise a new track
+ * Tracks missed for more than MAX_MISSES frames are dropped.
+ *
+ * Smoothing / hysteresis, so announcements stop flickering:
+ *   box, area       → exponential smoothing (ALPHA)
+ *   label           → a different label must win LABEL_CONFIRM frames in a row
+ *   side, distance  → bucket only changes once the smoothed value is clearly
+ *                     past the boundary (SIDE_MARGIN / DIST_MARGIN)
+ *
+ * Approach: every matched detection also feeds an ApproachEstimator with
+ * the raw box size, so approaching(t) / ttcSeconds(t) tell a car driving at
+ * the user from a parked one — growth common to all tracks is the user
+ * walking, not the objects moving. Approaching tracks outrank everything else.
+ *
+ * A track is stable after MIN_HITS matched frames. needsAnnouncement() is
+ * true once per stable track, and again only if its label, side or distance
+ * bucket changes, or it starts approaching — callers mark it with markAnnounced().
+ *
+ * Pure Java, fixed-size arrays; tracks are kept compact in [0, count).
+ */
+public class ObjectTracker {
+
+    public static final int MAX_TRACKS = 16;
+    public static final int NONE = -1;
+
+    private static final float ALPHA = 0.4f;
+    private static final float MIN_IOU = 0.3f;
+    private static final int MAX_MISSES = 5;
+    private static final int MIN_HITS = 3;
+    private static final int LABEL_CONFIRM = 2;
+    private static final float SIDE_MARGIN = 0.05f;   // fraction of frame width
+    private static final float DIST_MARGIN = 0.15f;   // relative area
+
+    public int count;
+    public final int[] id = new int[MAX_TRACKS];
+    public final int[] mlkitId = new int[MAX_TRACKS];
+    public final float[] left = new float[MAX_TRACKS], top = new float[MAX_TRACKS];
+    public final float[] right = new float[MAX_TRACKS], bottom = new float[MAX_TRACKS];
+    public final float[] area = new float[MAX_TRACKS];
+    public final String[] label = new String[MAX_TRACKS];
+    public final float[] confidence = new float[MAX_TRACKS];
+    public final byte[] side = new byte[MAX_TRACKS];
+    public final byte[] distance = new byte[MAX_TRACKS];
+    public final boolean[] hazard = new boolean[MAX_TRACKS];
+    public final byte[] hazardLevel = new byte[MAX_TRACKS];   // Hazards.priority(), 0 = none
+    public final int[] hits = new int[MAX_TRACKS];
+    public final int[] misses = new int[MAX_TRACKS];
+
+    // Label hysteresis
+    private final String[] pendingLabel = new String[MAX_TRACKS];
+    private final int[] pendingCount = new int[MAX_TRACKS];
+
+    // What was last announced for each track
+    private final String[] saidLabel = new String[MAX_TRACKS];
+    private final byte[] saidSide = new byte[MAX_TRACKS];
+    private final byte[] saidDistance = new byte[MAX_TRACKS];
+    private final boolean[] said = new boolean[MAX_TRACKS];
+    private final boolean[] saidApproaching = new boolean[MAX_TRACKS];
+
+    private final ApproachEstimator approach = new ApproachEstimator(MAX_TRACKS);
+
+    /** Track index each detection of the last update went to. */
+    public final int[] trackOfDetection = new int[SceneModel.MAX_OBJECTS];
+
+    private final boolean[] matched = new boolean[MAX_TRACKS];
+    private int detections;
+    private int nextId = 1;
+
+    public void update(SceneModel scene) {
+        for (int t = 0; t < count; t++) matched[t] = false;
+        detections = scene.count;
+
+        for (int d = 0; d < scene.count; d++) {
+            float l = scene.left[d] / (float) scene.width, r = scene.right[d] / (float) scene.width;
+            float tp = scene.top[d] / (float) scene.height, b = scene.bottom[d] / (float) scene.height;
+
+            int t = findTrack(scene.trackingId[d], l, tp, r, b);
+            if (t == NONE) t = newTrack(l, tp, r, b);
+            if (t == NONE) { trackOfDetection[d] = NONE; continue; }
+
+            matched[t] = true;
+            trackOfDetection[d] = t;
+            mlkitId[t] = scene.trackingId[d];
+            smooth(t, l, tp, r, b);
+            approach.add(t, scene.timestamp, (float) Math.sqrt((r - l) * (b - tp)));
+            updateLabel(t, scene.label[d], scene.confidence[d]);
+            hits[t]++;
+            misses[t] = 0;
+        }
+        approach.update(count, scene.timestamp);
+
+        for (int t = count - 1; t >= 0; t--) {
+            if (matched[t]) continue;
+            if (++misses[t] > MAX_MISSES) remove(t);
+        }
+    }
+
+    /** Seen for MIN_HITS frames and not missing for more than one frame. */
+    public boolean isStable(int t) {
+        return hits[t] >= MIN_HITS && misses[t] <= 1;
+    }
+
+    /**
+     * Most important stable, labeled track (approaching, then most urgent
+     * hazard, then closest, then center, then biggest), or NONE.
+     */
+    public int priorityIndex() {
+        int best = NONE;
+        for (int t = 0; t < count; t++) {
+            if (!isStable(t) || label[t] == null) continue;
+            if (best == NONE || outranks(t, best)) best = t;
+        }
+        return best;
+    }
+
+    public boolean needsAnnouncement(int t) {
+        return !said[t]
+            || !label[t].equals(saidLabel[t])
+            || side[t] != saidSide[t]
+            || distance[t] != saidDistance[t]
+            || (approaching(t) && !saidApproaching[t]);
+    }
+
+    public void markAnnounced(int t) {
+        said[t] = true;
+        saidLabel[t] = label[t];
+        saidSide[t] = side[t];
+        saidDistance[t] = distance[t];
+        saidApproaching[t] = approaching(t);
+    }
+
+    /** Growing fast enough to reach the user within ApproachEstimator.APPROACH_TTC_S. */
+    public boolean approaching(int t) {
+        return approach.approaching(t);
+    }
+
+    /** Time to contact in seconds, POSITIVE_INFINITY when not approaching. */
+    public float ttcSeconds(int t) {
+        return approach.ttcSeconds(t);
+    }
+
+    /** "on your left, nearby" */
+    public String describe(int t) {
+        return SceneModel.positionText(side[t], distance[t]);
+    }
+
+    public void clear() {
+        for (int t = 0; t < count; t++) { label[t] = null; pendingLabel[t] = null; saidLabel[t] = null; }
+        count = 0;
+    }
+
+    // ── Association ──────────────────────────────────────────────────────────
+
+    private int findTrack(int trackingId, float l, float t, float r, float b) {
+        if (trackingId != SceneModel.NO_TRACK) {
+            for (int i = 0; i < count; i++)
+                if (!matched[i] && mlkitId[i] == trackingId) return i;
+        }
+        int best = NONE;
+        float bestIou = MIN_IOU;
+        for (int i = 0; i < count; i++) {
+            if (matched[i]) continue;
+            float iou = iou(i, l, t, r, b);
+            if (iou >= bestIou) { bestIou = iou; best = i; }
+        }
+        return best;
+    }
+
+    private float iou(int i, float l, float t, float r, float b) {
+        float iw = Math.min(right[i], r) - Math.max(left[i], l);
+        float ih = Math.min(bottom[i], b) - Math.max(top[i], t);
+        if (iw <= 0 || ih <= 0) return 0f;
+        float inter = iw * ih;
+        float union = (right[i] - left[i]) * (bottom[i] - top[i]) + (r - l) * (b - t) - inter;
+        return union <= 0 ? 0f : inter / union;
+    }
+
+    private int newTrack(float l, float t, float r, float b) {
+        if (count == MAX_TRACKS) return NONE;
+        int i = count++;
+        id[i] = nextId++;
+        left[i] = l; top[i] = t; right[i] = r; bottom[i] = b;
+        area[i] = (r - l) * (b - t);
+        label[i] = null;
+        confidence[i] = 0f;
+        side[i] = (byte) SceneModel.sideOf((l + r) * 0.5f);
+        distance[i] = (byte) SceneModel.distanceOf(area[i]);
+        hazard[i] = false;
+        hazardLevel[i] = 0;
+        hits[i] = 0;
+        misses[i] = 0;
+        pendingLabel[i] = null;
+        pendingCount[i] = 0;
+        said[i] = false;
+        saidApproaching[i] = false;
+        saidLabel[i] = null;
+        approach.reset(i);
+        matched[i] = false;
+        return i;
+    }
+
+    private void remove(int t) {
+        int last = --count;
+        if (t != last) {
+            id[t] = id[last]; mlkitId[t] = mlkitId[last];
+            left[t] = left[last]; top[t] = top[last]; right[t] = right[last]; bottom[t] = bottom[last];
+            area[t] = area[last];
+            label[t] = label[last]; confidence[t] = confidence[last];
+            side[t] = side[last]; distance[t] = distance[last]; hazard[t] = hazard[last];
+            hazardLevel[t] = hazardLevel[last];
+            hits[t] = hits[last]; misses[t] = misses[last];
+            pendingLabel[t] = pendingLabel[last]; pendingCount[t] = pendingCount[last];
+            said[t] = said[last]; saidLabel[t] = saidLabel[last];
+            saidApproaching[t] = saidApproaching[last];
+            approach.move(last, t);
+            saidSide[t] = saidSide[last]; saidDistance[t] = saidDistance[last];
+            matched[t] = matched[last];
+            for (int d = 0; d < detections; d++)
+                if (trackOfDetection[d] == last) trackOfDetection[d] = t;
+        }
+        label[last] = null;
+        pendingLabel[last] = null;
+        saidLabel[last] = null;
+    }
+
+    // ── Smoothing ────────────────────────────────────────────────────────────
+
+    private void smooth(int t, float l, float tp, float r, float b) {
+        left[t]   += ALPHA * (l - left[t]);
+        top[t]    += ALPHA * (tp - top[t]);
+        right[t]  += ALPHA * (r - right[t]);
+        bottom[t] += ALPHA * (b - bottom[t]);
+        area[t]   += ALPHA * ((r - l) * (b - tp) - area[t]);
+        side[t] = (byte) sideWithHysteresis(side[t], (left[t] + right[t]) * 0.5f);
+        distance[t] = (byte) distanceWithHysteresis(distance[t], area[t]);
+    }
+
+    private void updateLabel(int t, String name, float conf) {
+        if (name == null) return;   // detector-only frame: keep what we have
+        if (name.equals(label[t])) {
+            confidence[t] += ALPHA * (conf - confidence[t]);
+            pendingLabel[t] = null;
+            pendingCount[t] = 0;
+            return;
+        }
+        if (name.equals(pendingLabel[t])) pendingCount[t]++;
+        else { pendingLabel[t] = name; pendingCount[t] = 1; }
+
+        if (label[t] == null || pendingCount[t] >= LABEL_CONFIRM) {
+            label[t] = name;
+            confidence[t] = conf;
+            hazardLevel[t] = (byte) Hazards.priority(name);
+            hazard[t] = hazardLevel[t] > 0;
+            pendingLabel[t] = null;
+            pendingCount[t] = 0;
+        }
+    }
+
+    // A bucket only changes once the value would still be past the boundary
+    // after backing off by the margin
+
+    private static int sideWithHysteresis(int current, float cx) {
+        int raw = SceneModel.sideOf(cx);
+        if (raw > current) return SceneModel.sideOf(cx - SIDE_MARGIN) > current ? raw : current;
+        if (raw < current) return SceneModel.sideOf(cx + SIDE_MARGIN) < current ? raw : current;
+        return current;
+    }
+
+    private static int distanceWithHysteresis(int current, float a) {
+        int raw = SceneModel.distanceOf(a);
+        if (raw < current) return SceneModel.distanceOf(a * (1 - DIST_MARGIN)) < current ? raw : current;
+        if (raw > current) return SceneModel.distanceOf(a * (1 + DIST_MARGIN)) > current ? raw : current;
+        return current;
+    }
+
+    private boolean outranks(int a, int b) {
+        boolean ra = approaching(a), rb = approaching(b);
+        if (ra != rb) return ra;
+        if (hazardLevel[a] != hazardLevel[b]) return hazardLevel[a] > hazardLevel[b];
+        if (distance[a] != distance[b]) return distance[a] < distance[b];
+        boolean ca = side[a] == SceneModel.SIDE_CENTER, cb = side[b] == SceneModel.SIDE_CENTER;
+        if (ca != cb) return ca;
+        return area[a] > area[b];
+    }
+}
@@ -0,0 +1,232 @@
+package com.navassist;
+
+import java.util.Locale;
+
+/**
+ * PipelineMetrics — Latency histograms and counters for the frame pipeline.
+ *
+ *   queue     → sensor timestamp → analyze() (time the frame waited for us)
+ *   stage     → per ML stage, submit → task complete (one histogram per name);
+ *               runs served from a stage's cache are only counted, so the
+ *               histogram holds real inference times
+ *   frame     → analyze() → all stages joined
+ *   announce  → sensor timestamp → speech / haptic actually fired
+ *   hazard    → the same for hazard alerts only (AlertScheduler's priority
+ *               lane); ones slower than HAZARD_BUDGET_MS are also counted
+ *
+ * Counters: frames received, FULL / DETECT_ONLY / SKIP decisions, full
+ * passes refused by the FrameQualityGate (blurred / badly exposed), failed
+ * and cached stage runs, and camera frames dropped before they reached the analyzer.
+ * In-flight bookkeeping: peak frames in flight against the limit, frames
+ * that had to wait for a free place, waiting frames replaced by a newer one
+ * (drop-oldest), and full passes demoted because earlier frames were busy.
+ * CameraX's KEEP_ONLY_LATEST drops silently, so drops are estimated from
+ * gaps in the sensor timestamps against the shortest frame interval seen.
+ *
+ * Input and analysed frames-per-second are measured over one-second windows.
+ * setProfile() starts a fresh set of numbers labelled with the analysis
+ * profile, so profiles can be compared side by side.
+ * Everything is recorded on the analysis thread without allocation (a stage
+ * histogram is created the first time its name is seen); report() may be
+ * called from any thread. Pure Java — callers pass all timestamps in.
+ */
+public class PipelineMetrics {
+
+    public static final int MAX_STAGES = 8;
+    /** Sensor → hazard alert target; slower alerts are counted in the report. */
+    public static final long HAZARD_BUDGET_MS = 400;
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final LatencyHistogram queue = new LatencyHistogram();
+    private final LatencyHistogram frame = new LatencyHistogram();
+    private final LatencyHistogram announce = new LatencyHistogram();
+    private final LatencyHistogram hazard = new LatencyHistogram();
+    private final String[] stageNames = new String[MAX_STAGES];
+    private final LatencyHistogram[] stages = new LatencyHistogram[MAX_STAGES];
+    private int stageCount;
+
+    private String profile = "";
+    private int frameWidth, frameHeight;
+    private long received, full, detectOnly, skipped, failedStages, cachedStages, dropped, announcements;
+    private long blurry, badExposure;
+    private float sharpness, meanLuma;
+    private long queued, replaced, demoted, overBudget;
+    private int peakInFlight, inFlightLimit;
+
+    // Drop estimation
+    private long lastSensorNanos = -1, framePeriodNanos = Long.MAX_VALUE;
+
+    // FPS windows
+    private long windowStart = -1;
+    private int windowIn, windowAnalysed;
+    private float inputFps, analysedFps;
+
+    /** Resets everything and labels the following numbers with this profile. */
+    public synchronized void setProfile(String label) {
+        reset();
+        profile = label;
+    }
+
+    /** A camera frame reached analyze(). queueNanos < 0 when unknown. */
+    public synchronized void onFrameReceived(long sensorNanos, long queueNanos, long nowNanos,
+                                             int width, int height) {
+        received++;
+        frameWidth = width;
+        frameHeight = height;
+        if (queueNanos >= 0) queue.recordNanos(queueNanos);
+
+        if (lastSensorNanos >= 0 && sensorNanos > lastSensorNanos) {
+            long gap = sensorNanos - lastSensorNanos;
+            if (gap < framePeriodNanos) framePeriodNanos = gap;
+            long missed = (gap + framePeriodNanos / 2) / framePeriodNanos - 1;
+            if (missed > 0) dropped += missed;
+        }
+        lastSensorNanos = sensorNanos;
+
+        if (windowStart < 0) windowStart = nowNanos;
+        windowIn++;
+        long elapsed = nowNanos - windowStart;
+        if (elapsed >= SECOND_NANOS) {
+            inputFps = windowIn * (float) SECOND_NANOS / elapsed;
+            analysedFps = windowAnalysed * (float) SECOND_NANOS / elapsed;
+            windowStart = nowNanos;
+            windowIn = 0;
+            windowAnalysed = 0;
+        }
+    }
+
+    public synchronized void onDecision(FrameScheduler.Decision decision) {
+        switch (decision) {
+            case FULL:        full++; break;
+            case DETECT_ONLY: detectOnly++; break;
+            default:          skipped++; break;
+        }
+    }
+
+    /** A FULL frame went through the quality gate; verdict is a FrameQualityGate constant. */
+    public synchronized void onQuality(int verdict, float sharpness, float meanLuma) {
+        this.sharpness = sharpness;
+        this.meanLuma = meanLuma;
+        if (verdict == FrameQualityGate.BLURRY) blurry++;
+        else if (verdict != FrameQualityGate.OK) badExposure++;
+    }
+
+    /** A frame started; inFlight counts it. */
+    public synchronized void onInFlight(int inFlight, int limit) {
+        inFlightLimit = limit;
+        if (inFlight > peakInFlight) peakInFlight = inFlight;
+    }
+
+    /** A frame had to wait for a free place; replacedOlder → it pushed out the one waiting. */
+    public synchronized void onQueued(boolean replacedOlder) {
+        queued++;
+        if (replacedOlder) replaced++;
+    }
+
+    /** A full pass ran detectors only because earlier frames were still in flight. */
+    public synchronized void onDemoted() {
+        demoted++;
+    }
+
+    public synchronized void onStageFailed() {
+        failedStages++;
+    }
+
+    /** All stages of a frame joined. */
+    public synchronized void onFrameFinished(FrameTiming timing) {
+        windowAnalysed++;
+        frame.recordNanos(timing.totalNanos());
+        for (int i = 0; i < timing.stages.length; i++) {
+            LatencyHistogram h = stage(timing.stages[i]);
+            if (timing.stageNanos[i] == FrameTiming.CACHED) cachedStages++;
+            else h.recordNanos(timing.stageNanos[i]);
+        }
+    }
+
+    /** Speech or a haptic cue fired for the frame with this timing. */
+    public synchronized void onAnnounced(FrameTiming timing, long nowNanos) {
+        onAnnounced(timing, nowNanos, false);
+    }
+
+    /** As above; isHazard → it went out on the hazard lane. */
+    public synchronized void onAnnounced(FrameTiming timing, long nowNanos, boolean isHazard) {
+        if (timing == null) return;
+        announcements++;
+        long latency = nowNanos - timing.startNanos + Math.max(0, timing.queueNanos);
+        announce.recordNanos(latency);
+        if (isHazard) {
+            hazard.recordNanos(latency);
+            if (latency > HAZARD_BUDGET_MS * 1_000_000L) overBudget++;
+        }
+    }
+
+    public synchronized void reset() {
+        queue.reset(); frame.reset(); announce.reset(); hazard.reset();
+        for (int i = 0; i < stageCount; i++) stages[i].reset();
+        received = full = detectOnly = skipped = failedStages = cachedStages = dropped = announcements = 0;
+        blurry = badExposure = 0;
+        sharpness = meanLuma = 0f;
+        queued = replaced = demoted = overBudget = 0;
+        peakInFlight = 0;
+        lastSensorNanos = -1;
+        framePeriodNanos = Long.MAX_VALUE;
+        windowStart = -1;
+        windowIn = windowAnalysed = 0;
+        inputFps = analysedFps = 0f;
+        frameWidth = frameHeight = 0;
+    }
+
+    /** Multi-line text report: counters first, then one line per histogram. */
+    public synchronized void report(StringBuilder sb) {
+        sb.append("profile ").append(profile)
+          .append(" → ").append(frameWidth).append('x').append(frameHeight).append('\n');
+        sb.append("fps in ").append(Math.round(inputFps))
+          .append(" / analysed ").append(Math.round(analysedFps)).append('\n');
+        sb.append("frames ").append(received)
+          .append(" full ").append(full)
+          .append(" detect ").append(detectOnly)
+          .append(" skip ").append(skipped)
+          .append(" dropped ").append(dropped)
+          .append(" failed ").append(failedStages)
+          .append(" cached ").append(cachedStages)
+          .append(" announced ").append(announcements).append('\n');
+        sb.append("gate blurry ").append(blurry)
+          .append(" exposure ").append(badExposure)
+          .append(" | sharp ").append(Math.round(sharpness))
+          .append(" luma ").append(Math.round(meanLuma)).append('\n');
+        sb.append("flight peak ").append(peakInFlight).append('/').append(inFlightLimit)
+          .append(" queued ").append(queued)
+          .append(" replaced ").append(replaced)
+          .append(" demoted ").append(demoted).append('\n');
+        sb.append("hazard alerts over ").append(HAZARD_BUDGET_MS).append(" ms: ").append(overBudget).append('\n');
+        sb.append(String.format(Locale.US, "%-10s%6s %6s %6s %6s %5s%n", "ms", "p50", "p90", "p99", "max", "n"));
+        line(sb, "queue", queue);
+        for (int i = 0; i < stageCount; i++) line(sb, stageNames[i], stages[i]);
+        line(sb, "frame", frame);
+        line(sb, "announce", announce);
+        line(sb, "hazard", hazard);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(512);
+        report(sb);
+        return sb.toString();
+    }
+
+    private LatencyHistogram stage(String name) {
+        for (int i = 0; i < stageCount; i++) if (stageNames[i].equals(name)) return stages[i];
+        if (stageCount == MAX_STAGES) return stages[MAX_STAGES - 1];
+        stageNames[stageCount] = name;
+        return stages[stageCount++] = new LatencyHistogram();
+    }
+
+    // Times in ms; report() runs at most once a second, so formatting may allocate
+    private static void line(StringBuilder sb, String name, LatencyHistogram h) {
+        if (name.endsWith("Stage")) name = name.substring(0, name.length() - 5);
+        if (name.length() > 10) name = name.substring(0, 10);
+        sb.append(String.format(Locale.US, "%-10s%6.1f %6.1f %6.1f %6.1f %5d%n", name,
+            h.percentileMicros(50) / 1000f, h.percentileMicros(90) / 1000f,
+            h.percentileMicros(99) / 1000f, h.maxMicros() / 1000f, h.count()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.navassist;
+
+/**
+ * ReadingOrder — Sorts text boxes the way a sighted reader would scan them.
+ *
+ *   1. boxes are taken top to bottom
+ *   2. a box whose vertical centre falls inside the current row's band
+ *      joins that row (side-by-side columns, a price next to a name)
+ *   3. each row is read left to right
+ *
+ * Works on plain box arrays in upright image coordinates so it stays free of
+ * ML Kit types. Insertion sorts — a sign has a handful of blocks.
+ */
+public final class ReadingOrder {
+
+    private ReadingOrder() {}
+
+    /** Fills order[0, n) with box indices in reading order. row[] is scratch of size n. */
+    public static void sort(int[] left, int[] top, int[] right, int[] bottom, int n,
+                            int[] order, int[] row) {
+        for (int i = 0; i < n; i++) order[i] = i;
+        // Top to bottom
+        for (int i = 1; i < n; i++) {
+            int k = order[i], j = i - 1;
+            while (j >= 0 && top[order[j]] > top[k]) { order[j + 1] = order[j]; j--; }
+            order[j + 1] = k;
+        }
+        // Group into rows by vertical overlap with the row's first box
+        int r = -1, bandTop = 0, bandBottom = 0;
+        for (int i = 0; i < n; i++) {
+            int k = order[i];
+            int cy = (top[k] + bottom[k]) / 2;
+            if (r < 0 || cy < bandTop || cy > bandBottom) {
+                r++;
+                bandTop = top[k];
+                bandBottom = bottom[k];
+            }
+            row[k] = r;
+        }
+        // Row, then left to right
+        for (int i = 1; i < n; i++) {
+            int k = order[i], j = i - 1;
+            while (j >= 0 && (row[order[j]] > row[k]
+                    || (row[order[j]] == row[k] && left[order[j]] > left[k]))) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = k;
+        }
+    }
+}
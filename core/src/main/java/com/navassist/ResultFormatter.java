@@ -0,0 +1,159 @@
+package com.navassist;
+
+/**
+ * ResultFormatter — Allocation-free post-processing of one frame's labels.
+ *
+ *   add()            → copy (name, confidence) pairs into fixed arrays
+ *   selectTop(k)     → partial top-k by confidence (insertion into k slots,
+ *                      no full sort, no comparator, no boxing)
+ *   secondaryLine()  → "Chair 80%  •  Table 61%"
+ *   confidenceText() → "80% confidence"  (precomputed table)
+ *   statusText()     → "🟢 3 objects identified" (cached per count)
+ *   spoken()         → "Chair, on your left, nearby"
+ *   caution()        → "Caution. Stairs, straight ahead, nearby"
+ *   pinned()         → "📍 on your left, nearby"
+ *
+ * Text is built into StringBuilders owned by the formatter; a new String is
+ * only created when the content differs from the previous frame, so a steady
+ * scene produces no garbage at all. Not thread-safe — one formatter per
+ * analysis thread; returned Strings are immutable and safe to hand to the UI.
+ */
+public class ResultFormatter {
+
+    public static final int MAX_LABELS = 16;
+    private static final String SEPARATOR = "  •  ";
+
+    private static final String[] CONFIDENCE = new String[101];
+    static {
+        for (int p = 0; p <= 100; p++) CONFIDENCE[p] = p + "% confidence";
+    }
+
+    private final String[] names = new String[MAX_LABELS];
+    private final float[] confidences = new float[MAX_LABELS];
+    private final int[] top = new int[MAX_LABELS];
+    private int count, topCount;
+
+    private final Slot secondary = new Slot();
+    private final Slot spoken = new Slot();
+    private final Slot caution = new Slot();
+    private final Slot detail = new Slot();
+    private final Slot pinned = new Slot();
+    private final String[] status = new String[MAX_LABELS + 1];
+
+    public void clear() {
+        for (int i = 0; i < count; i++) names[i] = null;
+        count = 0;
+        topCount = 0;
+    }
+
+    /** Adds one label; extra labels beyond MAX_LABELS are ignored. */
+    public void add(String name, float confidence) {
+        if (count == MAX_LABELS || name == null) return;
+        names[count] = name;
+        confidences[count] = confidence;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Keeps the k most confident labels, best first. Returns how many were kept. */
+    public int selectTop(int k) {
+        k = Math.min(k, count);
+        topCount = 0;
+        for (int i = 0; i < count; i++) {
+            float c = confidences[i];
+            int pos = topCount;
+            while (pos > 0 && confidences[top[pos - 1]] < c) pos--;
+            if (pos >= k) continue;
+            int last = Math.min(topCount, k - 1);
+            for (int j = last; j > pos; j--) top[j] = top[j - 1];
+            top[pos] = i;
+            if (topCount < k) topCount++;
+        }
+        return topCount;
+    }
+
+    public String name(int rank) {
+        return names[top[rank]];
+    }
+
+    public int percent(int rank) {
+        return percentOf(confidences[top[rank]]);
+    }
+
+    /** Ranks [from, topCount) as "Name NN%  •  Name NN%". */
+    public String secondaryLine(int from) {
+        StringBuilder sb = secondary.begin();
+        for (int r = from; r < topCount; r++) {
+            if (sb.length() > 0) sb.append(SEPARATOR);
+            sb.append(name(r)).append(' ').append(percent(r)).append('%');
+        }
+        return secondary.commit();
+    }
+
+    /** "Chair, on your left, nearby" */
+    public String spoken(String name, String position) {
+        spoken.begin().append(name).append(", ").append(position);
+        return spoken.commit();
+    }
+
+    /** "car approaching fast, on your left, nearby" */
+    public String approaching(String name, String position) {
+        spoken.begin().append(name).append(" approaching fast, ").append(position);
+        return spoken.commit();
+    }
+
+    /** "Caution. Stairs, straight ahead, nearby" — a hazard's spoken() */
+    public String caution(String spoken) {
+        caution.begin().append("Caution. ").append(spoken);
+        return caution.commit();
+    }
+
+    /** "📍 on your left, nearby" */
+    public String pinned(String position) {
+        pinned.begin().append("📍 ").append(position);
+        return pinned.commit();
+    }
+
+    /** "Your left  •  80% confidence" */
+    public String detail(String position, int percent) {
+        detail.begin().append(position).append(SEPARATOR).append(confidenceText(percent));
+        return detail.commit();
+    }
+
+    public String statusText(int objects) {
+        if (objects > MAX_LABELS) return "🟢 " + objects + " objects identified";
+        String s = status[objects];
+        if (s == null) {
+            s = "🟢 " + objects + " object" + (objects > 1 ? "s" : "") + " identified";
+            status[objects] = s;
+        }
+        return s;
+    }
+
+    public static String confidenceText(int percent) {
+        return CONFIDENCE[Math.max(0, Math.min(100, percent))];
+    }
+
+    public static int percentOf(float confidence) {
+        return (int) (confidence * 100);
+    }
+
+    /** Reusable builder that only turns into a new String when its text changed. */
+    private static final class Slot {
+        private final StringBuilder sb = new StringBuilder(96);
+        private String last = "";
+
+        StringBuilder begin() {
+            sb.setLength(0);
+            return sb;
+        }
+
+        String commit() {
+            if (!last.contentEquals(sb)) last = sb.toString();
+            return last;
+        }
+    }
+}
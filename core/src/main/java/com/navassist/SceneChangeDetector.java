@@ -0,0 +1,111 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SceneChangeDetector — Cheap luma test run before any ML Kit model.
+ *
+ * The Y plane is reduced to a 16 × 12 grid of cell means (4 × 4 samples per
+ * cell, ~3 000 byte reads per frame) and compared with the grid of the last
+ * frame that was actually analysed:
+ *
+ *   meanDelta  → average absolute cell change after removing the global
+ *                brightness shift (auto-exposure drift is not a new scene)
+ *   maxDelta   → largest single cell change — a new obstacle entering one
+ *                corner of the view trips this immediately
+ *
+ * Comparing against the last ANALYSED frame rather than the previous camera
+ * frame means a slow pan still accumulates into a change. Call accept() once
+ * the frame has been handed to inference to make it the new reference.
+ *
+ * Pure Java and allocation-free after construction; synthetic planes can be
+ * fed with ByteBuffer.wrap(byte[]).
+ */
+public class SceneChangeDetector {
+
+    public static final int GRID_W = 16, GRID_H = 12;
+    private static final int SAMPLES = 4;   // per cell, per axis
+
+    private final float meanThreshold;
+    private final float cellThreshold;
+
+    private int[] cur = new int[GRID_W * GRID_H];
+    private int[] ref = new int[GRID_W * GRID_H];
+    private boolean hasRef = false;
+    private float meanDelta, maxDelta;
+
+    public SceneChangeDetector() {
+        this(6f, 40f);
+    }
+
+    /** Thresholds are in luma levels (0–255). */
+    public SceneChangeDetector(float meanThreshold, float cellThreshold) {
+        this.meanThreshold = meanThreshold;
+        this.cellThreshold = cellThreshold;
+    }
+
+    /**
+     * Samples the Y plane and returns true when it differs meaningfully from
+     * the reference frame (always true before the first accept()).
+     */
+    public boolean update(ByteBuffer y, int width, int height, int rowStride, int pixelStride) {
+        int cellW = width / GRID_W, cellH = height / GRID_H;
+        if (cellW == 0 || cellH == 0) return true;
+        int stepX = Math.max(1, cellW / SAMPLES), stepY = Math.max(1, cellH / SAMPLES);
+        int offX = stepX / 2, offY = stepY / 2;
+        int limit = y.limit();
+
+        long total = 0;
+        for (int gy = 0; gy < GRID_H; gy++) {
+            for (int gx = 0; gx < GRID_W; gx++) {
+                int sum = 0, n = 0;
+                for (int sy = 0; sy < SAMPLES; sy++) {
+                    int row = (gy * cellH + offY + sy * stepY) * rowStride;
+                    for (int sx = 0; sx < SAMPLES; sx++) {
+                        int idx = row + (gx * cellW + offX + sx * stepX) * pixelStride;
+                        if (idx < limit) { sum += y.get(idx) & 0xFF; n++; }
+                    }
+                }
+                int mean = n == 0 ? 0 : sum / n;
+                cur[gy * GRID_W + gx] = mean;
+                total += mean;
+            }
+        }
+        if (!hasRef) {
+            meanDelta = maxDelta = 255f;
+            return true;
+        }
+
+        long refTotal = 0;
+        for (int v : ref) refTotal += v;
+        float shift = (total - refTotal) / (float) cur.length;
+
+        float sum = 0f, max = 0f;
+        for (int i = 0; i < cur.length; i++) {
+            float d = Math.abs(cur[i] - ref[i] - shift);
+            sum += d;
+            if (d > max) max = d;
+        }
+        meanDelta = sum / cur.length;
+        maxDelta = max;
+        return meanDelta > meanThreshold || maxDelta > cellThreshold;
+    }
+
+    /** Makes the last sampled frame the reference for future comparisons. */
+    public void accept() {
+        int[] t = ref; ref = cur; cur = t;
+        hasRef = true;
+    }
+
+    public void reset() {
+        hasRef = false;
+    }
+
+    public float lastMeanDelta() {
+        return meanDelta;
+    }
+
+    public float lastMaxDelta() {
+        return maxDelta;
+    }
+}
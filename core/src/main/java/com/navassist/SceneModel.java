@@ -0,0 +1,140 @@
+package com.navassist;
+
+/**
+ * SceneModel — Every object detected in one frame, in flat primitive arrays.
+ *
+ * Per object i < count:
+ *   left/top/right/bottom → box in upright frame pixels
+ *   trackingId            → ML Kit STREAM_MODE tracking ID, NO_TRACK if none
+ *   label / confidence    → best ImageLabeler name for the box (null if unlabeled)
+ *   side                  → SIDE_LEFT / SIDE_CENTER / SIDE_RIGHT
+ *   distance              → DIST_VERY_CLOSE … DIST_FAR (from box area)
+ *   hazard / hazardLevel  → label matches the hazard vocabulary, and its
+ *                           Hazards priority (0 = none)
+ *
+ * timestamp is the frame's sensor time in nanoseconds.
+ *
+ * One instance is reused frame after frame by FramePipeline, so read it only
+ * inside onFrameResult. priorityIndex() picks what to announce: the most urgent hazard first,
+ * then the closest object, then the one straight ahead, then the biggest.
+ */
+public class SceneModel {
+
+    public static final int MAX_OBJECTS = 8;
+    public static final int NO_TRACK = -1;
+
+    public static final int SIDE_LEFT = 0, SIDE_CENTER = 1, SIDE_RIGHT = 2;
+    public static final int DIST_VERY_CLOSE = 0, DIST_NEARBY = 1, DIST_FEW_METERS = 2, DIST_FAR = 3;
+
+    public int width, height, count;
+    public long timestamp;
+    public final int[] left = new int[MAX_OBJECTS], top = new int[MAX_OBJECTS];
+    public final int[] right = new int[MAX_OBJECTS], bottom = new int[MAX_OBJECTS];
+    public final int[] trackingId = new int[MAX_OBJECTS];
+    public final String[] label = new String[MAX_OBJECTS];
+    public final float[] confidence = new float[MAX_OBJECTS];
+    public final byte[] side = new byte[MAX_OBJECTS];
+    public final byte[] distance = new byte[MAX_OBJECTS];
+    public final boolean[] hazard = new boolean[MAX_OBJECTS];
+    public final byte[] hazardLevel = new byte[MAX_OBJECTS];
+
+    /** Starts a new frame; width/height are the upright frame size. */
+    public void begin(int width, int height, long timestamp) {
+        this.width = width;
+        this.height = height;
+        this.timestamp = timestamp;
+        for (int i = 0; i < count; i++) label[i] = null;
+        count = 0;
+    }
+
+    /** Adds one detection; returns its index or -1 when the model is full. */
+    public int add(int l, int t, int r, int b, int trackId, String name, float conf) {
+        if (count == MAX_OBJECTS) return -1;
+        int i = count++;
+        left[i] = l; top[i] = t; right[i] = r; bottom[i] = b;
+        trackingId[i] = trackId;
+        label[i] = name;
+        confidence[i] = conf;
+        side[i] = (byte) sideOf(centerX(i));
+        distance[i] = (byte) distanceOf(area(i));
+        hazardLevel[i] = (byte) Hazards.priority(name);
+        hazard[i] = hazardLevel[i] > 0;
+        return i;
+    }
+
+    /** Box center as a fraction of frame width (0 = left edge). */
+    public float centerX(int i) {
+        return (left[i] + right[i]) * 0.5f / width;
+    }
+
+    /** Box area as a fraction of the frame. */
+    public float area(int i) {
+        return (float) (right[i] - left[i]) * (bottom[i] - top[i]) / ((float) width * height);
+    }
+
+    /** Most important object, or -1. labeledOnly skips boxes without a name. */
+    public int priorityIndex(boolean labeledOnly) {
+        int best = -1;
+        for (int i = 0; i < count; i++) {
+            if (labeledOnly && label[i] == null) continue;
+            if (best < 0 || outranks(i, best)) best = i;
+        }
+        return best;
+    }
+
+    private boolean outranks(int a, int b) {
+        if (hazardLevel[a] != hazardLevel[b]) return hazardLevel[a] > hazardLevel[b];
+        if (distance[a] != distance[b]) return distance[a] < distance[b];
+        boolean ca = side[a] == SIDE_CENTER, cb = side[b] == SIDE_CENTER;
+        if (ca != cb) return ca;
+        return area(a) > area(b);
+    }
+
+    /** "on your left, nearby" */
+    public String describe(int i) {
+        return positionText(side[i], distance[i]);
+    }
+
+    // ── Buckets ──────────────────────────────────────────────────────────────
+
+    public static int sideOf(float cx) {
+        return cx < 0.30f ? SIDE_LEFT : cx > 0.70f ? SIDE_RIGHT : SIDE_CENTER;
+    }
+
+    public static int distanceOf(float area) {
+        return area > 0.30f ? DIST_VERY_CLOSE
+             : area > 0.10f ? DIST_NEARBY
+             : area > 0.03f ? DIST_FEW_METERS
+             : DIST_FAR;
+    }
+
+    // Every "side, distance" phrase built once so describing a box never allocates
+    private static final String[][] POSITION = new String[3][4];
+    static {
+        for (int s = 0; s < 3; s++)
+            for (int d = 0; d < 4; d++)
+                POSITION[s][d] = sideText(s) + ", " + distanceText(d);
+    }
+
+    /** "on your left, nearby" */
+    public static String positionText(int side, int distance) {
+        return POSITION[side][distance];
+    }
+
+    public static String sideText(int side) {
+        switch (side) {
+            case SIDE_LEFT:  return "on your left";
+            case SIDE_RIGHT: return "on your right";
+            default:         return "straight ahead";
+        }
+    }
+
+    public static String distanceText(int distance) {
+        switch (distance) {
+            case DIST_VERY_CLOSE: return "very close";
+            case DIST_NEARBY:     return "nearby";
+            case DIST_FEW_METERS: return "a few meters away";
+            default:              return "far away";
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.navassist;
+
+/**
+ * SosMessage — Text of the SOS SMS sent to the guardian.
+ *
+ *   build(name, lat, lng) →
+ *     🚨 SOS EMERGENCY!
+ *     <name> needs help urgently!
+ *     📍 Live Location: https://maps.google.com/?q=<lat>,<lng>
+ *     📱 Sent via NavAssist app
+ *
+ * Pure Java, so the alert path can be measured off-device; PairingManager
+ * supplies the stored user name (null is sent as an empty name). Plain
+ * concatenation: a pre-sized StringBuilder measured slower
+ * (AlertBenchmark.sos, bench/baselines/).
+ */
+public final class SosMessage {
+
+    private SosMessage() {}
+
+    public static String build(String name, double lat, double lng) {
+        String link = "https://maps.google.com/?q=" + lat + "," + lng;
+        return "🚨 SOS EMERGENCY!\n" +
+               (name != null ? name : "") + " needs help urgently!\n" +
+               "📍 Live Location: " + link + "\n" +
+               "📱 Sent via NavAssist app";
+    }
+}
@@ -0,0 +1,125 @@
+package com.navassist;
+
+/**
+ * TextBlockLog — Remembers recently read text blocks so a sign is read once.
+ *
+ * Blocks are keyed by a 64-bit hash of their normalised content (lower case,
+ * letters and digits only, single spaces), so a repeat is usually found with
+ * one long compare. OCR of the same sign still differs slightly from shot to
+ * shot (a dropped or misread letter), so on a hash miss blocks also count as
+ * the same when their edit distance is at most MAX_EDIT_RATIO of the longer.
+ *
+ *   markRead(block, now) → true if the block is new (not read within ttlMs)
+ *
+ * Bounded: when full, the oldest entry is replaced. Pure Java; the edit
+ * distance rows are reused, so comparing allocates nothing.
+ */
+public class TextBlockLog {
+
+    private static final float MAX_EDIT_RATIO = 0.2f;
+    private static final int MAX_COMPARE = 128;   // chars — longer blocks only match by hash
+
+    private final int capacity;
+    private final long ttlMs;
+    private final String[] keys;
+    private final long[] hashes;
+    private final long[] readAt;
+    private int size;
+
+    private final int[] prevRow = new int[MAX_COMPARE + 1];
+    private final int[] row = new int[MAX_COMPARE + 1];
+    private final StringBuilder norm = new StringBuilder(MAX_COMPARE);
+
+    public TextBlockLog(int capacity, long ttlMs) {
+        this.capacity = capacity;
+        this.ttlMs = ttlMs;
+        keys = new String[capacity];
+        hashes = new long[capacity];
+        readAt = new long[capacity];
+    }
+
+    /** Records the block as read now. Returns false if it was already read within the TTL. */
+    public boolean markRead(String block, long now) {
+        normalize(block);
+        if (norm.length() == 0) return false;
+        long hash = hash(norm);
+        int match = -1;
+        for (int i = 0; i < size && match < 0; i++) if (hashes[i] == hash) match = i;
+        for (int i = 0; i < size && match < 0; i++) if (similar(keys[i], norm)) match = i;
+        if (match >= 0) {
+            boolean fresh = now - readAt[match] > ttlMs;
+            readAt[match] = now;
+            return fresh;
+        }
+        int slot = size < capacity ? size++ : oldest();
+        keys[slot] = norm.toString();
+        hashes[slot] = hash;
+        readAt[slot] = now;
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) keys[i] = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int oldest() {
+        int o = 0;
+        for (int i = 1; i < size; i++) if (readAt[i] < readAt[o]) o = i;
+        return o;
+    }
+
+    // FNV-1a
+    private static long hash(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private void normalize(String s) {
+        norm.setLength(0);
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && norm.length() > 0) norm.append(' ');
+                norm.append(Character.toLowerCase(c));
+                space = false;
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            }
+        }
+    }
+
+    private boolean similar(String a, CharSequence b) {
+        int la = a.length(), lb = b.length();
+        if (la > MAX_COMPARE || lb > MAX_COMPARE) return false;
+        int allowed = (int) (Math.max(la, lb) * MAX_EDIT_RATIO);
+        if (Math.abs(la - lb) > allowed) return false;
+        return editDistance(a, b) <= allowed;
+    }
+
+    // Two-row Levenshtein; both strings are at most MAX_COMPARE chars
+    private int editDistance(String a, CharSequence b) {
+        int la = a.length(), lb = b.length();
+        int[] prev = prevRow, cur = row;
+        for (int j = 0; j <= lb; j++) prev[j] = j;
+        for (int i = 1; i <= la; i++) {
+            cur[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= lb; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] t = prev; prev = cur; cur = t;
+        }
+        return prev[lb];
+    }
+}
@@ -0,0 +1,88 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * YuvCropper — Cuts a bounding box out of a YUV_420_888 camera frame as NV21.
+ *
+ * ML Kit reports boxes in UPRIGHT image coordinates (after applying the
+ * frame's rotation), while the planes are still in SENSOR orientation, so a
+ * box is first mapped back with toSensorRect(). The crop is then handed to
+ * InputImage.fromByteArray(…, NV21) with the same rotation.
+ *
+ * Output goes into a caller-owned byte[] so crop buffers can be reused frame
+ * after frame. The plane buffers may be read concurrently by other stages,
+ * so their position never moves: reads are absolute, and packed Y rows are
+ * bulk-copied through a duplicate() view. A crop of the whole frame is how
+ * FramePipeline copies a frame before closing its ImageProxy.
+ */
+public final class YuvCropper {
+
+    private YuvCropper() {}
+
+    /**
+     * Maps an upright box (l, t, r, b) to sensor coordinates, padded by
+     * padFraction of its size, clamped to the frame and aligned to even
+     * pixels. out = {left, top, width, height}.
+     */
+    public static void toSensorRect(int l, int t, int r, int b, int rotation,
+                                    int sensorW, int sensorH, float padFraction, int[] out) {
+        int padX = (int) ((r - l) * padFraction), padY = (int) ((b - t) * padFraction);
+        l -= padX; r += padX; t -= padY; b += padY;
+
+        int sl, st, sr, sb;
+        switch (rotation) {
+            case 90:  sl = t;           st = sensorH - r; sr = b;           sb = sensorH - l; break;
+            case 180: sl = sensorW - r; st = sensorH - b; sr = sensorW - l; sb = sensorH - t; break;
+            case 270: sl = sensorW - b; st = l;           sr = sensorW - t; sb = r;           break;
+            default:  sl = l;           st = t;           sr = r;           sb = b;           break;
+        }
+        sl = clamp(sl, 0, sensorW) & ~1;
+        st = clamp(st, 0, sensorH) & ~1;
+        sr = clamp(sr, 0, sensorW) & ~1;
+        sb = clamp(sb, 0, sensorH) & ~1;
+        out[0] = sl;
+        out[1] = st;
+        out[2] = Math.max(0, sr - sl);
+        out[3] = Math.max(0, sb - st);
+    }
+
+    /** Bytes needed for an NV21 image of this size. */
+    public static int nv21Size(int w, int h) {
+        return w * h * 3 / 2;
+    }
+
+    /**
+     * Copies the (even-aligned) sensor rect into out as NV21: full-resolution
+     * Y rows followed by interleaved V/U at half resolution.
+     */
+    public static void cropNv21(ByteBuffer y, int yRowStride, int yPixelStride,
+                                ByteBuffer u, ByteBuffer v, int uvRowStride, int uvPixelStride,
+                                int left, int top, int w, int h, byte[] out) {
+        int o = 0;
+        ByteBuffer rows = yPixelStride == 1 ? y.duplicate() : null;
+        for (int row = 0; row < h; row++) {
+            int base = (top + row) * yRowStride + left * yPixelStride;
+            if (rows != null) {
+                rows.position(base);
+                rows.get(out, o, w);
+                o += w;
+            } else {
+                for (int col = 0; col < w; col++) out[o++] = y.get(base + col * yPixelStride);
+            }
+        }
+        int cl = left / 2, ct = top / 2;
+        for (int row = 0; row < h / 2; row++) {
+            int base = (ct + row) * uvRowStride + cl * uvPixelStride;
+            for (int col = 0; col < w / 2; col++) {
+                int idx = base + col * uvPixelStride;
+                out[o++] = v.get(idx);
+                out[o++] = u.get(idx);
+            }
+        }
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return v < lo ? lo : Math.min(v, hi);
+    }
+}
@@ -0,0 +1,146 @@
+package com.navassist;
+
+import static com.navassist.AlertPolicy.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AlertPolicyTest {
+
+    private static final long COOLDOWN_MS = 2500, FRAME_MS = 33;
+
+    private final FrameScheduler scheduler = new FrameScheduler();
+    private final AlertPolicy policy = new AlertPolicy(new AlertScheduler(COOLDOWN_MS), scheduler, COOLDOWN_MS);
+    private final ObjectTracker tracks = new ObjectTracker();
+    private final SceneModel scene = new SceneModel();
+    private long now = 10_000;
+
+    // ── One announcement per frame ───────────────────────────────────────────
+
+    @Test
+    public void groundWinsATieWithTheObject() {
+        seeStable("Stairs", 40, 10, 60, 30);   // level 3, far ahead
+        GroundAnalyzer.Finding step = new GroundAnalyzer.Finding(GroundAnalyzer.STEP,
+            SceneModel.SIDE_CENTER, SceneModel.DIST_NEARBY);
+        assertEquals(GROUND, policy.choose(true, step, null, tracks, scene, null));
+        assertEquals(3, policy.level());
+        assertEquals(ObjectTracker.NONE, policy.track());
+    }
+
+    @Test
+    public void moreUrgentObjectWinsOverTheGround() {
+        seeStable("Stairs", 20, 20, 80, 80);   // very close, straight ahead: level 4
+        GroundAnalyzer.Finding step = new GroundAnalyzer.Finding(GroundAnalyzer.STEP,
+            SceneModel.SIDE_LEFT, SceneModel.DIST_NEARBY);
+        assertEquals(TRACK, policy.choose(true, step, null, tracks, scene, null));
+        assertEquals(4, policy.level());
+    }
+
+    @Test
+    public void modelHazardWinsOverAnEqualObjectButNotOverTheGround() {
+        seeStable("Pole", 40, 10, 60, 30);     // level 2
+        assertEquals(MODEL, policy.choose(true, null, "fence", tracks, scene, null));
+        GroundAnalyzer.Finding drop = new GroundAnalyzer.Finding(GroundAnalyzer.DROP_OFF,
+            SceneModel.SIDE_CENTER, SceneModel.DIST_NEARBY);
+        assertEquals(GROUND, policy.choose(true, drop, "stairs", tracks, scene, null));
+    }
+
+    // ── Detector-only frames ─────────────────────────────────────────────────
+
+    @Test
+    public void detectorOnlyFramesAnnounceNoRoutineObjects() {
+        seeStable("Chair", 5, 40, 25, 70);
+        assertEquals(NOTHING, policy.choose(false, null, null, tracks, scene, "Chair"));
+        assertEquals(AlertScheduler.SUPPRESS, policy.offer("Chair", "Chair, on your left", 1000, now));
+        assertTrue("not marked announced", tracks.needsAnnouncement(tracks.priorityIndex()));
+
+        GroundAnalyzer.Finding step = new GroundAnalyzer.Finding(GroundAnalyzer.STEP,
+            SceneModel.SIDE_CENTER, SceneModel.DIST_NEARBY);
+        assertEquals(GROUND, policy.choose(false, step, null, tracks, scene, null));
+    }
+
+    @Test
+    public void detectorOnlyFramesAnnounceTrackedHazards() {
+        seeStable("Stairs", 40, 10, 60, 30);
+        assertEquals(TRACK, policy.choose(false, null, null, tracks, scene, null));
+        assertEquals(3, policy.level());
+        assertEquals(AlertScheduler.PLAY, policy.offer("Stairs", "Caution. Stairs, straight ahead", 1000, now));
+    }
+
+    @Test
+    public void detectorOnlyFramesAnnounceApproachingTracks() {
+        // A box growing fast, alone in view
+        for (int i = 0; i < 12; i++) {
+            int half = 6 + 2 * i;
+            see("Chair", 50 - half, 50 - half, 50 + half, 50 + half);
+        }
+        int t = tracks.priorityIndex();
+        assertTrue(tracks.approaching(t));
+        assertEquals(TRACK, policy.choose(false, null, null, tracks, scene, null));
+        assertEquals(t, policy.track());
+        assertTrue(policy.level() >= 2);
+    }
+
+    // ── Freshness ────────────────────────────────────────────────────────────
+
+    @Test
+    public void trackIsAnnouncedOnceUntilItChanges() {
+        seeStable("Chair", 5, 40, 25, 70);
+        assertEquals(TRACK, policy.choose(true, null, null, tracks, scene, null));
+        assertEquals(AlertScheduler.PLAY, policy.offer("Chair", "Chair, on your left", 1000, now));
+        assertFalse(tracks.needsAnnouncement(policy.track()));
+
+        see("Chair", 5, 40, 25, 70);
+        now += COOLDOWN_MS;
+        assertEquals(TRACK, policy.choose(true, null, null, tracks, scene, null));
+        assertEquals(AlertScheduler.SUPPRESS, policy.offer("Chair", "Chair, on your left", 1000, now));
+    }
+
+    @Test
+    public void routineLabelRepeatsOnlyWithNewText() {
+        scene.begin(100, 100, 0);
+        assertEquals(LABEL, policy.choose(true, null, null, tracks, scene, "Chair"));
+        assertEquals(-1, policy.box());
+        assertEquals(0, policy.level());
+        assertEquals(AlertScheduler.PLAY, policy.offer("Chair", "Chair, straight ahead", 1000, now));
+
+        now += COOLDOWN_MS;
+        policy.choose(true, null, null, tracks, scene, "Chair");
+        assertEquals(AlertScheduler.SUPPRESS, policy.offer("Chair", "Chair, straight ahead", 1000, now));
+        policy.choose(true, null, null, tracks, scene, "Table");
+        assertEquals(AlertScheduler.PLAY, policy.offer("Table", "Table, straight ahead", 1000, now));
+    }
+
+    @Test
+    public void hazardIsOfferedEvenWhenNotFresh() {
+        scene.begin(100, 100, 0);
+        policy.choose(true, null, null, tracks, scene, "Stairs");
+        assertEquals(3, policy.level());
+        assertEquals(AlertScheduler.PLAY, policy.offer("Stairs", "Stairs, straight ahead", 1000, now));
+        now += AlertScheduler.HAZARD_REPEAT_MS;
+        policy.choose(true, null, null, tracks, scene, "Stairs");
+        assertEquals(AlertScheduler.PLAY, policy.offer("Stairs", "Stairs, straight ahead", 1000, now));
+    }
+
+    @Test
+    public void unstableLabeledBoxesWaitAndAnEmptyFrameIsScanning() {
+        see("Chair", 5, 40, 25, 70);
+        assertEquals(NOTHING, policy.choose(true, null, null, tracks, scene, "Chair"));
+        scene.begin(100, 100, now);
+        assertEquals(SCANNING, policy.choose(true, null, null, tracks, scene, null));
+        assertEquals(AlertScheduler.SUPPRESS, policy.offer("", "", 0, now));
+    }
+
+    // One detection per frame, into the scene and the tracker
+    private void see(String label, int l, int t, int r, int b) {
+        scene.begin(100, 100, now * 1_000_000L);
+        scene.add(l, t, r, b, 1, label, 0.8f);
+        tracks.update(scene);
+        now += FRAME_MS;
+    }
+
+    private void seeStable(String label, int l, int t, int r, int b) {
+        for (int i = 0; i < 3; i++) see(label, l, t, r, b);
+        assertTrue(tracks.priorityIndex() >= 0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.navassist;
+
+import static com.navassist.AlertScheduler.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AlertSchedulerTest {
+
+    private static final long COOLDOWN_MS = 2500;
+
+    private final AlertScheduler alerts = new AlertScheduler(COOLDOWN_MS);
+
+    // ── Routine lane ─────────────────────────────────────────────────────────
+
+    @Test
+    public void routineOutputKeepsItsCooldown() {
+        assertEquals(PLAY, alerts.offer(0, "chair", 1000, 0));
+        assertEquals(SUPPRESS, alerts.offer(0, "table", 500, 1000));
+        assertEquals(SUPPRESS, alerts.offer(0, "table", 500, COOLDOWN_MS - 1));
+        assertEquals(PLAY, alerts.offer(0, "table", 500, COOLDOWN_MS));
+    }
+
+    @Test
+    public void routineOutputNeverCutsOffAHazard() {
+        assertEquals(PLAY, alerts.offer(1, "pole", 1500, 0));
+        assertEquals(SUPPRESS, alerts.offer(0, "chair", 1000, 100));
+        assertEquals(PLAY, alerts.offer(0, "chair", 1000, 1500));
+    }
+
+    @Test
+    public void hazardPreemptsRoutineOutput() {
+        assertEquals(PLAY, alerts.offer(0, "chair", 2000, 0));
+        assertEquals(PREEMPT, alerts.offer(1, "pole", 1500, 1));
+    }
+
+    // ── Hazard lane ──────────────────────────────────────────────────────────
+
+    @Test
+    public void hazardIgnoresTheRoutineCooldown() {
+        assertEquals(PLAY, alerts.offer(0, "chair", 500, 0));
+        assertEquals(PLAY, alerts.offer(2, "stairs", 1500, 600));
+    }
+
+    @Test
+    public void sameHazardRepeatsOnlyAfterItsWindow() {
+        assertEquals(PLAY, alerts.offer(2, "stairs", 1000, 0));
+        assertEquals(SUPPRESS, alerts.offer(2, "stairs", 1000, 500));
+        assertEquals(SUPPRESS, alerts.offer(2, "stairs", 1000, HAZARD_REPEAT_MS - 1));
+        assertEquals(PLAY, alerts.offer(2, "stairs", 1000, HAZARD_REPEAT_MS));
+    }
+
+    @Test
+    public void risingLevelRepeatsAtOnce() {
+        assertEquals(PLAY, alerts.offer(2, "stairs", 1000, 0));
+        assertEquals(PREEMPT, alerts.offer(3, "stairs", 1000, 500));
+        assertEquals(SUPPRESS, alerts.offer(3, "stairs", 1000, 2000));
+    }
+
+    @Test
+    public void lowerHazardWaitsForAHigherOne() {
+        assertEquals(PLAY, alerts.offer(3, "car", 1500, 0));
+        assertEquals(SUPPRESS, alerts.offer(1, "pole", 1000, 100));
+        assertEquals(PLAY, alerts.offer(1, "pole", 1000, 1500));
+    }
+
+    @Test
+    public void interruptedOutputStopsBlocking() {
+        assertEquals(PLAY, alerts.offer(3, "car", 1500, 0));
+        alerts.interrupted();
+        assertEquals(PLAY, alerts.offer(1, "pole", 1000, 10));
+    }
+
+    @Test
+    public void sameLevelHazardWaitsForThePlayingOne() {
+        assertEquals(PLAY, alerts.offer(3, "step", 1500, 0));
+        assertEquals(SUPPRESS, alerts.offer(3, "car", 1500, 5));
+        assertEquals(SUPPRESS, alerts.offer(3, "car", 1500, 1000));
+        // The step finished; the car was never recorded, so it plays now
+        assertEquals(PLAY, alerts.offer(3, "car", 1500, 1500));
+    }
+
+    @Test
+    public void preemptedHazardMayPlayAgain() {
+        assertEquals(PLAY, alerts.offer(2, "step", 1500, 0));
+        assertEquals(PREEMPT, alerts.offer(3, "car", 1000, 10));
+        // The step was cut off after 10 ms, so its repeat window does not apply
+        assertEquals(PLAY, alerts.offer(2, "step", 1500, 1010));
+    }
+
+    // ── Worst case ───────────────────────────────────────────────────────────
+
+    /**
+     * Hazard-to-output latency added by scheduling, over every state the
+     * scheduler can be in when a hazard of each level first arrives: idle,
+     * routine output playing, or a lower, equal or higher hazard playing.
+     * The hazard is offered every frame until it plays.
+     *
+     *   more urgent than anything playing → 0 ms (same call)
+     *   otherwise → at most the playing alert's remaining time
+     */
+    @Test
+    public void worstCaseHazardLatency() {
+        long frameMs = 33, playingMs = 3000;
+        for (int level = 1; level <= 4; level++) {
+            for (int playing = -1; playing <= 4; playing++) {
+                AlertScheduler a = new AlertScheduler(COOLDOWN_MS);
+                if (playing >= 0) assertNotEquals(SUPPRESS, a.offer(playing, "other", playingMs, 0));
+                long arrived = 1;
+                long now = arrived;
+                int verdict;
+                while ((verdict = a.offer(level, "hazard", 1000, now)) == SUPPRESS) {
+                    now += frameMs;
+                    assertTrue("level " + level + " behind " + playing + " never played", now < 10_000);
+                }
+                long latency = now - arrived;
+                String what = "level " + level + " behind " + playing;
+                if (playing < level) {
+                    assertEquals(what, 0, latency);
+                    assertEquals(what, playing >= 0 ? PREEMPT : PLAY, verdict);
+                } else {
+                    assertTrue(what + ": " + latency + " ms", latency <= playingMs - arrived + frameMs);
+                    assertEquals(what, PLAY, verdict);
+                }
+            }
+        }
+    }
+}
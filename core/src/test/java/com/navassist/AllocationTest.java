@@ -0,0 +1,104 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+
+/**
+ * Steady-state garbage of the per-frame result path: filling the SceneModel
+ * the way FramePipeline.fillScene() does, ObjectTracker.update(), the
+ * AlertPolicy and the ResultFormatter calls the activities make for one
+ * frame.
+ *
+ * Measured with the thread's allocation counter, so it needs a HotSpot-style
+ * JVM; elsewhere the test is skipped. The JVM may allocate once in a while
+ * on its own (class loading, recompilation after other tests), so the
+ * quietest of a few windows counts: garbage made per frame shows in all of
+ * them.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP_FRAMES = 2_000, FRAMES = 10_000, WINDOWS = 3;
+    // getThreadAllocatedBytes() itself may allocate a little
+    private static final long SLACK_BYTES = 1024;
+
+    private static final int W = 480, H = 640;
+    private static final int[][] BOXES = {
+        {40, 300, 200, 620}, {220, 260, 300, 420}, {330, 100, 470, 300}, {150, 500, 330, 640},
+    };
+    private static final String[] NAMES = {"Person", "Chair", "Car", "Stairs"};
+    private static final String[] LABELS = {"Person", "Chair", "Table", "Car", "Dog", "Stairs", "Door", "Sky"};
+    private static final float[] CONFIDENCES = {0.91f, 0.55f, 0.62f, 0.48f, 0.77f, 0.83f, 0.51f, 0.69f};
+
+    private final SceneModel scene = new SceneModel();
+    private final ObjectTracker tracker = new ObjectTracker();
+    // The activities take one of the two paths per frame; each keeps its own
+    // formatter here so one path's text does not invalidate the other's
+    private final ResultFormatter formatter = new ResultFormatter();
+    private final ResultFormatter trackedFormatter = new ResultFormatter();
+    private final AlertPolicy policy = new AlertPolicy(new AlertScheduler(2500), new FrameScheduler(), 2500);
+    private long sink;
+
+    @Test
+    public void steadySceneAllocatesNothingPerFrame() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        for (int f = 0; f < WARMUP_FRAMES; f++) frame(f);
+        long allocated = Long.MAX_VALUE;
+        for (int w = 0, f = WARMUP_FRAMES; w < WINDOWS; w++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int end = f + FRAMES; f < end; f++) frame(f);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+        }
+
+        assertTrue("no stable track", tracker.priorityIndex() >= 0);
+        assertTrue(sink != 0);
+        assertTrue(allocated + " bytes over " + FRAMES + " frames", allocated <= SLACK_BYTES);
+    }
+
+    // One delivered frame; boxes wobble by a pixel, as from a steady hand
+    private void frame(int n) {
+        int jitter = n & 1;
+        scene.begin(W, H, n * 33_333_333L);
+        for (int i = 0; i < BOXES.length; i++) {
+            int[] b = BOXES[i];
+            scene.add(b[0] + jitter, b[1] + jitter, b[2] + jitter, b[3] + jitter, i + 1, NAMES[i], 0.8f);
+        }
+        tracker.update(scene);
+
+        if (policy.choose(true, null, null, tracker, scene, LABELS[0]) == AlertPolicy.TRACK)
+            tracked(policy.track(), n * 33L);
+
+        // Whole-frame labels, as on frames without stable tracks
+        formatter.clear();
+        for (int i = 0; i < LABELS.length; i++) formatter.add(LABELS[i], CONFIDENCES[i]);
+        formatter.selectTop(5);
+        int p = scene.priorityIndex(false);
+        sink += formatter.secondaryLine(1).length();
+        sink += formatter.spoken(formatter.name(0), scene.describe(p)).length();
+        sink += ResultFormatter.confidenceText(formatter.percent(0)).length();
+    }
+
+    private void tracked(int t, long now) {
+        String pos = tracker.describe(t);
+        trackedFormatter.clear();
+        for (int i = 0; i < tracker.count; i++)
+            if (i != t && tracker.label[i] != null && tracker.isStable(i))
+                trackedFormatter.add(tracker.label[i], tracker.confidence[i]);
+        trackedFormatter.selectTop(4);
+        sink += trackedFormatter.secondaryLine(0).length();
+        sink += trackedFormatter.statusText(trackedFormatter.size() + 1).length();
+        String spoken = trackedFormatter.spoken(tracker.label[t], pos);
+        if (policy.level() > 0) spoken = trackedFormatter.caution(spoken);
+        sink += spoken.length();
+        sink += trackedFormatter.pinned(pos).length();
+        sink += policy.offer(tracker.label[t], spoken, AlertScheduler.speechMs(spoken), now);
+    }
+}
@@ -0,0 +1,173 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import org.junit.Test;
+
+public class ApproachEstimatorTest {
+
+    private static final long FRAME_NANOS = 100_000_000L;   // 10 detector frames a second
+
+    private final ApproachEstimator estimator = new ApproachEstimator(ObjectTracker.MAX_TRACKS);
+    private long now;
+
+    @Test
+    public void steadyApproachGivesTimeToContact() {
+        // 10 m away, closing at 4 m/s: apparent size ∝ 1 / distance
+        for (int f = 0; f <= 10; f++) {
+            double distance = 10 - 4 * f * 0.1;
+            frame((float) (1 / distance));
+        }
+        // 6 m left → 1.5 s; a straight-line fit over the window reads the
+        // speeding-up growth late, so the estimate errs long
+        float ttc = estimator.ttcSeconds(0);
+        assertTrue("ttc " + ttc, ttc >= 1.5f && ttc < ApproachEstimator.APPROACH_TTC_S);
+        assertTrue(estimator.approaching(0));
+    }
+
+    @Test
+    public void jitterIsNoApproach() {
+        Random rnd = new Random(7);
+        for (int f = 0; f < 200; f++) {
+            frame(0.3f * (1 + (rnd.nextFloat() - 0.5f) * 0.06f));
+            assertFalse("frame " + f, estimator.approaching(0));
+        }
+    }
+
+    @Test
+    public void tooFewSamplesIsNoEstimate() {
+        frame(0.1f);
+        frame(0.2f);
+        frame(0.4f);
+        assertEquals(Float.POSITIVE_INFINITY, estimator.ttcSeconds(0), 0f);
+        assertFalse(estimator.approaching(0));
+    }
+
+    @Test
+    public void latchHoldsBetweenTheThresholds() {
+        float s = grow(0.1f, 2f, 15);
+        assertTrue(estimator.approaching(0));
+        s = grow(s, 3f, 15);
+        float ttc = estimator.ttcSeconds(0);
+        assertTrue("ttc " + ttc, ttc > ApproachEstimator.APPROACH_TTC_S && ttc < 3.5f);
+        assertTrue("between 2.5 and 3.5 s it stays latched", estimator.approaching(0));
+        grow(s, 5f, 15);
+        assertFalse(estimator.approaching(0));
+    }
+
+    @Test
+    public void latchNeedsTheApproachThreshold() {
+        grow(0.1f, 3f, 30);
+        assertFalse(estimator.approaching(0));
+    }
+
+    @Test
+    public void walkingTowardsParkedThingsIsNoApproach() {
+        // The user walks at 1.4 m/s towards a car 3.5 m away, a pole at 4 m
+        // and a bench at 5 m; none of them moves
+        float[] start = {3.5f, 4f, 5f};
+        for (int f = 0; f <= 10; f++) {
+            float[] s = new float[start.length];
+            for (int i = 0; i < s.length; i++) s[i] = 1 / (start[i] - 1.4f * f * 0.1f);
+            frame(s);
+        }
+        for (int i = 0; i < start.length; i++) assertFalse("slot " + i, estimator.approaching(i));
+
+        // Alone, the same car would look like it is coming at the user
+        ApproachEstimator alone = new ApproachEstimator(1);
+        for (int f = 0; f <= 10; f++) {
+            long t = f * FRAME_NANOS;
+            alone.add(0, t, 1 / (3.5f - 1.4f * f * 0.1f));
+            alone.update(1, t);
+        }
+        assertTrue(alone.approaching(0));
+    }
+
+    @Test
+    public void carDrivingAtAWalkingUserIsAnApproach() {
+        // The user walks as above past a pole at 6 m and a bench at 8 m; a
+        // car drives at them at 5 m/s from 15 m
+        for (int f = 0; f <= 15; f++) {
+            double t = f * 0.1;
+            frame((float) (1 / (15 - 6.4 * t)), (float) (1 / (6 - 1.4 * t)), (float) (1 / (8 - 1.4 * t)));
+        }
+        assertTrue(estimator.approaching(0));
+        assertFalse(estimator.approaching(1));
+        assertFalse(estimator.approaching(2));
+    }
+
+    @Test
+    public void moveKeepsTheHistory() {
+        for (int f = 0; f <= 10; f++) frame(1f, 1f, 1f, (float) (1 / (10 - 4 * f * 0.1)));
+        float ttc = estimator.ttcSeconds(3);
+        assertTrue(estimator.approaching(3));
+
+        // The tracker drops slot 1 and compacts: slot 3 now lives at 1
+        estimator.move(3, 1);
+        assertEquals(ttc, estimator.ttcSeconds(1), 0f);
+        assertTrue(estimator.approaching(1));
+        now += FRAME_NANOS;
+        estimator.add(0, now, 1f);
+        estimator.add(1, now, (float) (1 / (10 - 4 * 1.1)));
+        estimator.add(2, now, 1f);
+        estimator.update(3, now);
+        assertTrue(estimator.approaching(1));
+        assertTrue(estimator.ttcSeconds(1) < ttc);
+    }
+
+    @Test
+    public void slotWithoutASampleThisFrameKeepsItsState() {
+        grow(0.1f, 2f, 15);
+        assertTrue(estimator.approaching(0));
+        now += FRAME_NANOS;
+        estimator.add(1, now, 0.5f);
+        estimator.update(2, now);
+        assertTrue(estimator.approaching(0));
+    }
+
+    @Test
+    public void updatesAllocateNothing() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        for (int f = 0; f < 5_000; f++) busyFrame(f);
+        long allocated = Long.MAX_VALUE;
+        for (int w = 0, f = 5_000; w < 3; w++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int end = f + 10_000; f < end; f++) busyFrame(f);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        assertTrue(allocated + " bytes", allocated <= 1024);
+    }
+
+    // Every slot of the tracker in use, sizes cycling so all code paths run
+    private void busyFrame(int f) {
+        now += FRAME_NANOS;
+        for (int i = 0; i < ObjectTracker.MAX_TRACKS; i++)
+            estimator.add(i, now, 0.1f + ((f + i) % 20) * 0.01f);
+        estimator.update(ObjectTracker.MAX_TRACKS, now);
+    }
+
+    // Slot 0 grows at a constant time to contact for the given frames
+    private float grow(float s, float ttcSeconds, int frames) {
+        for (int f = 0; f < frames; f++) {
+            s *= (float) Math.exp(0.1 / ttcSeconds);
+            frame(s);
+        }
+        return s;
+    }
+
+    // One frame: slot i gets scale[i]
+    private void frame(float... scale) {
+        now += FRAME_NANOS;
+        for (int i = 0; i < scale.length; i++) estimator.add(i, now, scale[i]);
+        estimator.update(scale.length, now);
+    }
+}
@@ -0,0 +1,120 @@
+package com.navassist;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * FrameLogFixture — Writes src/test/resources/framelogs/walk.navl, the log
+ * FrameReplayerTest replays. Deterministic, so the committed file can be
+ * rebuilt byte for byte:
+ *
+ *   java -cp <core and test classes> com.navassist.FrameLogFixture core/src/test/resources/framelogs/walk.navl
+ *
+ * 45 frames at 30 fps, 128 × 88 sensor, rotation 90 (upright 88 × 128):
+ *
+ *   frames  0–7   standing still on a textured floor
+ *   frames  8–19  walking; a chair on the left (routine)
+ *   frames 20–44  walking up to a kerb — a darker riser across the lower
+ *                 band — with stairs ahead from frame 30 (hazard)
+ *
+ * RESULT records are written for every frame FrameTriage does not skip,
+ * with the detections of that phase and the ground finding, as the device
+ * would; what is announced goes through the activities' AlertPolicy, so
+ * routine announcements hold the scheduler off as they do on the device.
+ *
+ * The log is made with the same FrameTriage and GroundAnalyzer the replay
+ * runs, so it cannot show the replay disagreeing with a device — it pins
+ * the pipeline's decisions, nothing more.
+ */
+final class FrameLogFixture {
+
+    static final int WIDTH = 128, HEIGHT = 88, ROTATION = 90;
+    static final int FRAMES = 45;
+    private static final long FRAME_MS = 33;
+    private static final long GROUND_INTERVAL_MS = 250, ROUTINE_COOLDOWN_MS = 2500;
+    private static final int UPRIGHT_W = HEIGHT, UPRIGHT_H = WIDTH;
+
+    private FrameLogFixture() {}
+
+    static void write(File path) throws IOException {
+        FrameTriage triage = new FrameTriage(new PipelineMetrics());
+        GroundAnalyzer ground = new GroundAnalyzer();
+        ObjectTracker tracker = new ObjectTracker();
+        AlertPolicy policy = new AlertPolicy(new AlertScheduler(ROUTINE_COOLDOWN_MS), triage.scheduler(),
+                                             ROUTINE_COOLDOWN_MS);
+        ResultFormatter formatter = new ResultFormatter();
+        SceneModel scene = new SceneModel();
+        long lastGround = Long.MIN_VALUE / 2;
+        byte[] plane = new byte[WIDTH * HEIGHT];
+        ByteBuffer y = ByteBuffer.wrap(plane);
+        String[] noLabels = new String[0];
+        float[] noConfidences = new float[0];
+        try (FrameLog.Writer log = new FrameLog.Writer(path, FrameLog.MAX_BYTES)) {
+            for (int f = 0; f < FRAMES; f++) {
+                long uptimeMs = 10_000 + f * FRAME_MS;
+                long sensorNanos = uptimeMs * 1_000_000L;
+                fill(plane, f);
+                log.frame(sensorNanos, uptimeMs, WIDTH, HEIGHT, ROTATION, y, WIDTH, 1);
+
+                FrameScheduler.Decision d = triage.decide(y, WIDTH, HEIGHT, WIDTH, 1, uptimeMs, false);
+                if (d == FrameScheduler.Decision.SKIP) continue;
+                triage.accept();
+                GroundAnalyzer.Finding finding = null;
+                if (uptimeMs - lastGround >= GROUND_INTERVAL_MS) {
+                    lastGround = uptimeMs;
+                    int kind = ground.analyze(y, WIDTH, HEIGHT, WIDTH, 1, ROTATION);
+                    if (kind != GroundAnalyzer.NONE)
+                        finding = new GroundAnalyzer.Finding(kind, ground.side(), ground.distance());
+                }
+                detections(scene, f, sensorNanos);
+                tracker.update(scene);
+                triage.onScene(scene);
+                int choice = policy.choose(d == FrameScheduler.Decision.FULL, finding, null, tracker, scene, null);
+                String key = null, spoken = null;
+                if (choice == AlertPolicy.GROUND) {
+                    key = finding.name();
+                    spoken = formatter.spoken(key, finding.position());
+                } else if (choice == AlertPolicy.TRACK) {
+                    int t = policy.track();
+                    key = tracker.label[t];
+                    String pos = tracker.describe(t);
+                    spoken = tracker.approaching(t) ? formatter.approaching(key, pos) : formatter.spoken(key, pos);
+                }
+                if (key != null) {
+                    if (policy.level() > 0) spoken = formatter.caution(spoken);
+                    policy.offer(key, spoken, AlertScheduler.speechMs(spoken), uptimeMs);
+                }
+                log.result(sensorNanos, uptimeMs, d.ordinal(), true, scene, finding, noLabels, noConfidences, 0);
+            }
+        }
+    }
+
+    // Upright (u, v) → sensor plane for rotation 90, as GroundAnalyzer maps it
+    private static void fill(byte[] plane, int f) {
+        Random rnd = new Random(f < 8 ? 0 : f);
+        int phase = f < 8 ? 0 : f * 3;   // walking: the floor pattern slides
+        boolean kerb = f >= 20;
+        for (int v = 0; v < UPRIGHT_H; v++) {
+            boolean riser = kerb && v >= 95 && v < 105;
+            for (int u = 0; u < UPRIGHT_W; u++) {
+                int luma = riser ? 55 + rnd.nextInt(21) - 10
+                    : (int) (115 + 25 * StrictMath.sin((u + phase) / 5.0)) + rnd.nextInt(61) - 30;
+                int sx = v, sy = HEIGHT - 1 - u;
+                plane[sy * WIDTH + sx] = Planes.luma(luma);
+            }
+        }
+    }
+
+    private static void detections(SceneModel scene, int f, long sensorNanos) {
+        scene.begin(UPRIGHT_W, UPRIGHT_H, sensorNanos);
+        // Boxes grow as the user walks up to them
+        if (f >= 8 && f < 20) scene.add(2, 40 - f, 30 + f, 90, 1, "Chair", 0.8f);
+        if (f >= 30) scene.add(34 - (f - 30), 60 - (f - 30), 54 + (f - 30), 100, 2, "Stairs", 0.75f);
+    }
+
+    public static void main(String[] args) throws IOException {
+        write(new File(args[0]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import org.junit.Test;
+
+/**
+ * Replays framelogs/walk.navl (see FrameLogFixture) and pins what the
+ * pipeline logic decides on it. A change that moves any of these numbers
+ * changes what a user on the street would hear; if it is intended, update
+ * the expectations (and regenerate the fixture if the format changed).
+ *
+ * The fixture is written by the same triage and ground code, so whether the
+ * replay agrees with what was recorded is not asserted here — only a device
+ * recording can show that.
+ */
+public class FrameReplayerTest {
+
+    private static final long DIGEST = 0x3dff296034c42ebcL;
+
+    @Test
+    public void walkReplaysToThePinnedDecisions() throws Exception {
+        FrameReplayer replayer = new FrameReplayer(250);
+        try (FrameLog.Reader log = new FrameLog.Reader(fixture("walk.navl"))) {
+            replayer.replay(log);
+        }
+        assertEquals(FrameLogFixture.FRAMES, replayer.frames());
+        assertEquals(12, replayer.results());
+
+        // Triage: one look at the still floor; while walking, full passes as
+        // the scene moves and detector-only checks while it holds still
+        // inside the announcement cooldown
+        assertEquals(8, replayer.decisions(FrameScheduler.Decision.FULL));
+        assertEquals(4, replayer.decisions(FrameScheduler.Decision.DETECT_ONLY));
+        assertEquals(33, replayer.decisions(FrameScheduler.Decision.SKIP));
+
+        // Ground: the kerb is found
+        assertEquals(2, replayer.groundFound());
+
+        // Alerts: the chair in the routine lane, the rest (kerb, stairs) as hazards
+        assertEquals(4, replayer.announced());
+        assertEquals(3, replayer.hazardAlerts());
+
+        assertEquals(Long.toHexString(DIGEST), Long.toHexString(replayer.digest()));
+    }
+
+    @Test
+    public void replayIsDeterministic() throws Exception {
+        FrameReplayer replayer = new FrameReplayer(250);
+        try (FrameLog.Reader log = new FrameLog.Reader(fixture("walk.navl"))) {
+            replayer.replay(log);
+            long first = replayer.digest();
+            replayer.replay(log);
+            assertEquals(first, replayer.digest());
+        }
+    }
+
+    private static File fixture(String name) throws Exception {
+        return new File(FrameReplayerTest.class.getResource("/framelogs/" + name).toURI());
+    }
+}
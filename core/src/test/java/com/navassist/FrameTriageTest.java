@@ -0,0 +1,137 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class FrameTriageTest {
+
+    private static final int W = 640, H = 480, STRIDE = 704;
+    private static final long FRAME_MS = 33;
+
+    private final FrameTriage triage = new FrameTriage(new PipelineMetrics());
+
+    /**
+     * A changing view at 30 fps with a 150 ms full pass, busy meaning "a FULL
+     * frame is in flight" as FramePipeline passes it. Full passes must keep
+     * coming back to back instead of being demoted forever.
+     */
+    @Test
+    public void changingSceneKeepsFullPassesRunning() {
+        long fullMs = 150;
+        long fullUntil = Long.MIN_VALUE;
+        int full = 0, detectOnly = 0;
+        for (long now = 0; now < 10_000; now += FRAME_MS) {
+            boolean busy = now < fullUntil;
+            FrameScheduler.Decision d = decide(Planes.blocks(W, H, STRIDE, 40, now), now, busy);
+            if (d == FrameScheduler.Decision.SKIP) continue;
+            if (d == FrameScheduler.Decision.FULL) {
+                assertFalse("two full passes in flight at " + now, busy);
+                fullUntil = now + fullMs;
+                full++;
+            } else {
+                detectOnly++;
+            }
+            triage.accept();
+        }
+        // One full pass every ceil(150 / 33) + 1 frames ≈ 198 ms
+        assertTrue("full passes: " + full, full >= 45);
+        assertTrue("detector passes: " + detectOnly, detectOnly >= 200);
+    }
+
+    @Test
+    public void busyDemotionDoesNotMakeTheNextFrameDue() {
+        byte[] view = Planes.blocks(W, H, STRIDE, 40, 1);
+        assertEquals(FrameScheduler.Decision.FULL, decide(view, 0, false));
+        triage.accept();
+
+        byte[] moved = Planes.blocks(W, H, STRIDE, 40, 2);
+        assertEquals(FrameScheduler.Decision.DETECT_ONLY, decide(moved, 33, true));
+        triage.accept();
+
+        // Same view again, full pass landed: nothing new to look at
+        assertEquals(FrameScheduler.Decision.SKIP, decide(moved, 66, false));
+        assertEquals(FrameScheduler.Decision.SKIP, decide(moved, 99, false));
+    }
+
+    @Test
+    public void blurredFullFrameIsRetried() {
+        byte[] sharp = Planes.blocks(W, H, STRIDE, 40, 1);
+        assertEquals(FrameScheduler.Decision.FULL, decide(sharp, 0, false));
+        triage.accept();
+
+        byte[] blurred = Planes.flat(W, H, STRIDE, 120, 0, 0);
+        assertEquals(FrameScheduler.Decision.DETECT_ONLY, decide(blurred, 33, false));
+        triage.accept();
+
+        // Focus is back but the view has not changed: the quality gate,
+        // unlike a busy demotion, leaves a full pass owed — a little later
+        byte[] refocused = Planes.noisy(blurred, W, H, STRIDE, 10, 3);
+        assertEquals(FrameScheduler.Decision.SKIP, decide(refocused, 66, false));
+        assertEquals(FrameScheduler.Decision.FULL, decide(refocused, 33 + 500, false));
+    }
+
+    @Test
+    public void viewThatStaysDarkStillGetsFullPasses() {
+        assertStaysBadButIsLookedAt(12, 2);
+    }
+
+    @Test
+    public void viewThatStaysFlatStillGetsFullPasses() {
+        // A plain wall: sensor noise only, so the Laplacian says "blurred"
+        assertStaysBadButIsLookedAt(120, 1);
+    }
+
+    @Test
+    public void flatViewFilledByACloseBoxIsNotBlur() {
+        byte[] wall = Planes.flat(W, H, STRIDE, 120, 1, 0);
+        assertEquals(FrameScheduler.Decision.DETECT_ONLY, decide(wall, 0, false));
+        triage.accept();
+
+        SceneModel scene = new SceneModel();
+        scene.begin(W, H, 0);
+        scene.add(40, 20, 600, 460, 1, null, 0.7f);
+        triage.onScene(scene);
+        assertEquals(FrameScheduler.Decision.FULL, decide(Planes.flat(W, H, STRIDE, 120, 1, 1), 500, false));
+    }
+
+    // The camera keeps a bad view for ten seconds, one new noise pattern per frame
+    private void assertStaysBadButIsLookedAt(int luma, int noise) {
+        int full = 0, skipped = 0;
+        long firstFull = -1;
+        for (long now = 0; now < 10_000; now += FRAME_MS) {
+            FrameScheduler.Decision d = decide(Planes.flat(W, H, STRIDE, luma, noise, now), now, false);
+            if (d == FrameScheduler.Decision.SKIP) { skipped++; continue; }
+            if (d == FrameScheduler.Decision.FULL) {
+                full++;
+                if (firstFull < 0) firstFull = now;
+            }
+            triage.accept();
+        }
+        assertTrue("first full pass at " + firstFull, firstFull >= 0 && firstFull <= 1000 + 2 * FRAME_MS);
+        assertTrue("full passes: " + full, full >= 3);
+        // Rejects must not turn into a full attempt on every camera frame
+        assertTrue("skipped: " + skipped, skipped >= 250);
+    }
+
+    @Test
+    public void droppedFrameLeavesTheScheduleAlone() {
+        // Severe thermal status: at most one analysed frame per 500 ms
+        triage.scheduler().setThermalStatus(FrameScheduler.THERMAL_SEVERE);
+        assertEquals(FrameScheduler.Decision.FULL, decide(Planes.blocks(W, H, STRIDE, 40, 1), 0, false));
+        triage.accept();
+
+        // Decided, but no slot was free: never accepted
+        byte[] moved = Planes.blocks(W, H, STRIDE, 40, 2);
+        assertEquals(FrameScheduler.Decision.FULL, decide(moved, 600, false));
+        assertEquals("still due", FrameScheduler.Decision.FULL, decide(moved, 633, false));
+        triage.accept();
+        assertEquals(FrameScheduler.Decision.SKIP, decide(Planes.blocks(W, H, STRIDE, 40, 3), 666, false));
+    }
+
+    private FrameScheduler.Decision decide(byte[] plane, long now, boolean busy) {
+        ByteBuffer y = Planes.wrap(plane);
+        return triage.decide(y, W, H, STRIDE, 1, now, busy);
+    }
+}
@@ -0,0 +1,202 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class GroundAnalyzerTest {
+
+    // Upright portrait frame; the analysed band starts at about v = 352
+    private static final int W = 480, H = 640, STRIDE = 512;
+    private static final int RUNS = 6;
+
+    // GroundStage cadences, ModelManager.groundIntervalMs() at HIGH, default, LOW
+    private static final long[] INTERVALS_MS = {150, 250, 400};
+
+    /** Luma of the upright pixel (u, v); rnd supplies the surface texture. */
+    private interface Scene {
+        int luma(int u, int v, Random rnd);
+    }
+
+    private static int noise(Random rnd, int amplitude) {
+        return rnd.nextInt(2 * amplitude + 1) - amplitude;
+    }
+
+    private static final Scene FLOOR = (u, v, rnd) -> 120 + noise(rnd, 30);
+
+    private static final Scene TILES = (u, v, rnd) ->
+        v % 48 < 3 || u % 48 < 3 ? 60 : 150 + noise(rnd, 25);
+
+    // Sunlit ground ahead, the user standing in a hard shadow, and the reverse
+    private static final Scene SHADOW_NEAR = (u, v, rnd) ->
+        v < 480 ? 150 + noise(rnd, 35) : 60 + noise(rnd, 14);
+    private static final Scene SHADOW_FAR = (u, v, rnd) ->
+        v < 480 ? 50 + noise(rnd, 12) : 125 + noise(rnd, 30);
+
+    // Kerb: ground, a darker riser about 40 px deep, ground again
+    private static final Scene STEP = (u, v, rnd) ->
+        v >= 470 && v < 510 ? 60 + noise(rnd, 15) : 130 + noise(rnd, 30);
+
+    // Textured ground ending in a dark, featureless void, or in bright water
+    private static final Scene HOLE = (u, v, rnd) ->
+        v < 470 ? 25 + noise(rnd, 2) : 130 + noise(rnd, 30);
+    private static final Scene WATER = (u, v, rnd) ->
+        v < 470 ? 205 + noise(rnd, 2) : 120 + noise(rnd, 30);
+
+    @Test
+    public void flatFloorIsNothing() {
+        assertNoFinding(FLOOR, 0);
+        assertNoFinding(FLOOR, 90);
+    }
+
+    @Test
+    public void tileGroutIsNothing() {
+        assertNoFinding(TILES, 0);
+    }
+
+    @Test
+    public void hardShadowEdgeIsNothing() {
+        assertNoFinding(SHADOW_NEAR, 0);
+        assertNoFinding(SHADOW_FAR, 0);
+        assertNoFinding(SHADOW_FAR, 270);
+    }
+
+    @Test
+    public void riserIsAStep() {
+        GroundAnalyzer g = new GroundAnalyzer();
+        assertEquals("needs confirming", GroundAnalyzer.NONE, run(g, STEP, 0, 1));
+        assertEquals(GroundAnalyzer.STEP, run(g, STEP, 0, 2));
+        assertEquals(SceneModel.SIDE_CENTER, g.side());
+        assertEquals(SceneModel.DIST_NEARBY, g.distance());
+    }
+
+    @Test
+    public void riserIsAStepInEveryRotation() {
+        for (int rotation : new int[] {90, 180, 270}) {
+            GroundAnalyzer g = new GroundAnalyzer();
+            run(g, STEP, rotation, 1);
+            assertEquals("rotation " + rotation, GroundAnalyzer.STEP, run(g, STEP, rotation, 2));
+        }
+    }
+
+    @Test
+    public void endOfTheGroundIsADropOff() {
+        for (Scene scene : Arrays.asList(HOLE, WATER)) {
+            GroundAnalyzer g = new GroundAnalyzer();
+            assertEquals(GroundAnalyzer.NONE, run(g, scene, 0, 1));
+            assertEquals(GroundAnalyzer.DROP_OFF, run(g, scene, 0, 2));
+            assertEquals(SceneModel.SIDE_CENTER, g.side());
+        }
+    }
+
+    @Test
+    public void findingClearsWhenTheGroundIsFlatAgain() {
+        GroundAnalyzer g = new GroundAnalyzer();
+        run(g, STEP, 0, 1);
+        assertEquals(GroundAnalyzer.STEP, run(g, STEP, 0, 2));
+        assertEquals(GroundAnalyzer.NONE, run(g, FLOOR, 0, 3));
+        assertEquals("a new line needs confirming again", GroundAnalyzer.NONE, run(g, STEP, 0, 4));
+    }
+
+    // ── Replayed walks (framelogs/ground-*.navl, see GroundLogFixture) ──────
+    // ground-step-* must be found on the way up to the step, ground-none-*
+    // never; a device recording named the same way is picked up as well
+
+    @Test
+    public void replayedKerbIsAStep() throws Exception {
+        assertStepFound("ground-step-kerb.navl");
+    }
+
+    @Test
+    public void replayedStairsAreAStep() throws Exception {
+        assertStepFound("ground-step-stairs.navl");
+    }
+
+    @Test
+    public void replayedTiledFloorIsNothing() throws Exception {
+        assertNothingFound("ground-none-tiles.navl");
+    }
+
+    @Test
+    public void everyGroundLogReplaysAsNamed() throws Exception {
+        File dir = new File(GroundAnalyzerTest.class.getResource("/framelogs").toURI());
+        int logs = 0;
+        for (String name : dir.list()) {
+            if (name.startsWith("ground-step-")) assertStepFound(name);
+            else if (name.startsWith("ground-none-")) assertNothingFound(name);
+            else continue;
+            logs++;
+        }
+        assertTrue(logs >= 3);
+    }
+
+    private static void assertStepFound(String name) throws Exception {
+        for (long interval : INTERVALS_MS) {
+            GroundAnalyzer g = new GroundAnalyzer();
+            int steps = 0, drops = 0;
+            for (int kind : replay(g, name, interval)) {
+                if (kind == GroundAnalyzer.STEP) steps++;
+                if (kind == GroundAnalyzer.DROP_OFF) drops++;
+            }
+            assertTrue(name + " @" + interval + " ms: step never found", steps > 0);
+            assertEquals(name + " @" + interval + " ms", 0, drops);
+        }
+    }
+
+    private static void assertNothingFound(String name) throws Exception {
+        for (long interval : INTERVALS_MS) {
+            int[] kinds = replay(new GroundAnalyzer(), name, interval);
+            for (int i = 0; i < kinds.length; i++)
+                assertEquals(name + " @" + interval + " ms, run " + i, GroundAnalyzer.NONE, kinds[i]);
+        }
+    }
+
+    // The log's frames through g on the GroundStage cadence; one finding per run
+    private static int[] replay(GroundAnalyzer g, String name, long intervalMs) throws Exception {
+        int[] kinds = new int[GroundLogFixture.FRAMES];
+        int runs = 0;
+        long last = Long.MIN_VALUE / 2;
+        try (FrameLog.Reader log = new FrameLog.Reader(
+                new File(GroundAnalyzerTest.class.getResource("/framelogs/" + name).toURI()))) {
+            for (int type; (type = log.next()) != FrameLog.END; ) {
+                if (type != FrameLog.FRAME || log.uptimeMs - last < intervalMs) continue;
+                last = log.uptimeMs;
+                if (runs == kinds.length) kinds = Arrays.copyOf(kinds, 2 * runs);
+                kinds[runs++] = g.analyze(log.y, log.width, log.height, log.width, 1, log.rotation);
+            }
+        }
+        return Arrays.copyOf(kinds, runs);
+    }
+
+    private static void assertNoFinding(Scene scene, int rotation) {
+        GroundAnalyzer g = new GroundAnalyzer();
+        for (int i = 0; i < RUNS; i++)
+            assertEquals("run " + i + ", rotation " + rotation, GroundAnalyzer.NONE, run(g, scene, rotation, i));
+    }
+
+    // A fresh texture every run, as from a camera
+    private static int run(GroundAnalyzer g, Scene scene, int rotation, long seed) {
+        boolean swap = rotation == 90 || rotation == 270;
+        int width = swap ? H : W, height = swap ? W : H;
+        int stride = swap ? width + 32 : STRIDE;
+        byte[] plane = new byte[height * stride];
+        Arrays.fill(plane, (byte) 0xFF);
+        Random rnd = new Random(seed);
+        for (int v = 0; v < H; v++) {
+            for (int u = 0; u < W; u++) {
+                int sx, sy;
+                switch (rotation) {
+                    case 90:  sx = v;             sy = height - 1 - u; break;
+                    case 180: sx = width - 1 - u; sy = height - 1 - v; break;
+                    case 270: sx = width - 1 - v; sy = u;              break;
+                    default:  sx = u;             sy = v;              break;
+                }
+                plane[sy * stride + sx] = Planes.luma(scene.luma(u, v, rnd));
+            }
+        }
+        return g.analyze(Planes.wrap(plane), width, height, stride, 1, rotation);
+    }
+}
@@ -0,0 +1,160 @@
+package com.navassist;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * GroundLogFixture — Writes the framelogs/ground-*.navl walks that
+ * GroundAnalyzerTest replays. Deterministic, so the committed files can be
+ * rebuilt byte for byte:
+ *
+ *   java -cp <core and test classes> com.navassist.GroundLogFixture core/src/test/resources/framelogs
+ *
+ * Unlike the analyzer's unit scenes these are rendered through a camera:
+ * a phone held at chest height (EYE), pitched PITCH below the horizon,
+ * walking at WALK with its bob, sway and roll, onto a ground plane seen in
+ * perspective — texture fixed to the ground, so it shrinks with distance
+ * and slides as the user walks — with vignetting, slow exposure drift,
+ * vertical motion blur and sensor noise on top. 128 × 96 sensor, rotation
+ * 90 (upright 96 × 128), FRAME_MS apart:
+ *
+ *   ground-step-kerb.navl   → concrete, then a kerb (one step up) at
+ *                             STAIRS_Z; the riser in its own shade
+ *   ground-step-stairs.navl → the same, a flight of three steps up
+ *   ground-none-tiles.navl  → a hall floor of large light and dark tiles
+ *                             with grout, the same walk
+ *
+ * FRAME records only; a device recording has RESULT records too, which the
+ * ground test does not read.
+ */
+final class GroundLogFixture {
+
+    static final int WIDTH = 128, HEIGHT = 96, ROTATION = 90;
+    static final int FRAMES = 40;
+    private static final long FRAME_MS = 66;
+    private static final int UPRIGHT_W = HEIGHT, UPRIGHT_H = WIDTH;
+    private static final double FOCAL = UPRIGHT_H / 2.0 / Math.tan(Math.toRadians(30));   // 60° vertical
+
+    private static final double EYE = 1.3, PITCH = Math.toRadians(30), WALK = 1.2;   // m, rad, m/s
+    private static final double STAIRS_Z = 3.4, RISER = 0.16, TREAD = 0.30, RISER_SHADE = 0.55;
+
+    /** Albedo (luma) of the surface at ground point (x, z), metres. */
+    private interface Surface {
+        double luma(double x, double z);
+    }
+
+    private static final Surface CONCRETE = (x, z) ->
+        130 + 16 * noise(x / 0.09, z / 0.09, 1) + 10 * noise(x / 0.02, z / 0.02, 2);
+
+    private static final Surface TILES = (x, z) -> {
+        double tile = 0.40, grout = 0.008;
+        double tx = x / tile + 100, tz = z / tile;
+        double fx = tx - Math.floor(tx), fz = tz - Math.floor(tz);
+        if (fx * tile < grout || fz * tile < grout) return 70;
+        boolean dark = (((int) Math.floor(tx) + (int) Math.floor(tz)) & 1) != 0;
+        return (dark ? 85 : 175) + 8 * noise(x / 0.05, z / 0.05, 3);
+    };
+
+    private GroundLogFixture() {}
+
+    static void write(File dir) throws IOException {
+        write(new File(dir, "ground-step-kerb.navl"), CONCRETE, 1, 10);
+        write(new File(dir, "ground-step-stairs.navl"), CONCRETE, 3, 11);
+        write(new File(dir, "ground-none-tiles.navl"), TILES, 0, 12);
+    }
+
+    private static void write(File path, Surface surface, int steps, long seed) throws IOException {
+        double[] frame = new double[UPRIGHT_W * UPRIGHT_H];
+        byte[] plane = new byte[WIDTH * HEIGHT];
+        ByteBuffer y = ByteBuffer.wrap(plane);
+        long state = seed;
+        try (FrameLog.Writer log = new FrameLog.Writer(path, FrameLog.MAX_BYTES)) {
+            for (int f = 0; f < FRAMES; f++) {
+                double t = f * FRAME_MS / 1000.0;
+                double step = 2 * Math.PI * 1.8 * t;                    // 1.8 steps per second
+                double eye = EYE + 0.025 * Math.sin(step);
+                double pitch = PITCH + Math.toRadians(1.5) * Math.sin(step + 1);
+                double roll = Math.toRadians(2.5) * Math.sin(step / 2);
+                double camX = 0.04 * Math.sin(step / 2), camZ = WALK * t;
+                double gain = 1 + 0.08 * Math.sin(t * 1.3);
+                render(frame, surface, steps, eye, pitch, roll, camX, camZ);
+
+                for (int v = 0; v < UPRIGHT_H; v++) {
+                    for (int u = 0; u < UPRIGHT_W; u++) {
+                        // Vertical motion blur over three rows, then the lens and the sensor
+                        double l = (frame[Math.max(0, v - 1) * UPRIGHT_W + u] + frame[v * UPRIGHT_W + u]
+                            + frame[Math.min(UPRIGHT_H - 1, v + 1) * UPRIGHT_W + u]) / 3;
+                        double du = (u - UPRIGHT_W / 2.0) / UPRIGHT_H, dv = (v - UPRIGHT_H / 2.0) / UPRIGHT_H;
+                        l *= gain * (1 - 0.6 * (du * du + dv * dv));
+                        state = state * 6364136223846793005L + 1442695040888963407L;
+                        l += ((state >>> 33) % 13) - 6;
+                        int sx = v, sy = HEIGHT - 1 - u;
+                        plane[sy * WIDTH + sx] = Planes.luma((int) Math.round(l));
+                    }
+                }
+                long uptimeMs = 20_000 + f * FRAME_MS;
+                log.frame(uptimeMs * 1_000_000L, uptimeMs, WIDTH, HEIGHT, ROTATION, y, WIDTH, 1);
+            }
+        }
+    }
+
+    // Upright frame, 2 × 2 rays per pixel
+    private static void render(double[] frame, Surface surface, int steps,
+                               double eye, double pitch, double roll, double camX, double camZ) {
+        double sp = Math.sin(pitch), cp = Math.cos(pitch), sr = Math.sin(roll), cr = Math.cos(roll);
+        for (int v = 0; v < UPRIGHT_H; v++) {
+            for (int u = 0; u < UPRIGHT_W; u++) {
+                double sum = 0;
+                for (int s = 0; s < 4; s++) {
+                    double dx = (u + 0.25 + 0.5 * (s & 1) - UPRIGHT_W / 2.0) / FOCAL;
+                    double dy = (v + 0.25 + 0.5 * (s >> 1) - UPRIGHT_H / 2.0) / FOCAL;
+                    double rx = dx * cr - dy * sr, ry = dx * sr + dy * cr;
+                    // Camera pitched down: image-down is (0, -cos, -sin), forward (0, -sin, cos)
+                    double wx = rx, wy = -sp - ry * cp, wz = cp - ry * sp;
+                    sum += trace(surface, steps, eye, camX, camZ, wx, wy, wz);
+                }
+                frame[v * UPRIGHT_W + u] = sum / 4;
+            }
+        }
+    }
+
+    private static double trace(Surface surface, int steps, double eye, double camX, double camZ,
+                                double wx, double wy, double wz) {
+        if (wy > -1e-3) return 150 + 20 * noise(wx * 8, wz * 8, 4);   // buildings above the horizon
+        double floor = 0;
+        for (int i = 0; i < steps; i++) {
+            double z = STAIRS_Z + i * TREAD - camZ;
+            if (z <= 0 || wz <= 0) continue;
+            double k = z / wz, h = eye + wy * k;              // height where the ray meets riser i
+            if (h < floor) break;                              // lands on the tread before it
+            if (h <= floor + RISER) return RISER_SHADE * surface.luma(camX + wx * k, (floor + RISER - h) * 7);
+            floor += RISER;
+        }
+        double k = (eye - floor) / -wy;
+        return surface.luma(camX + wx * k, camZ + wz * k);
+    }
+
+    // Smooth value noise in [-1, 1] on a unit lattice
+    private static double noise(double x, double z, int octave) {
+        int x0 = (int) Math.floor(x), z0 = (int) Math.floor(z);
+        double fx = x - x0, fz = z - z0;
+        fx = fx * fx * (3 - 2 * fx);
+        fz = fz * fz * (3 - 2 * fz);
+        double a = lattice(x0, z0, octave), b = lattice(x0 + 1, z0, octave);
+        double c = lattice(x0, z0 + 1, octave), d = lattice(x0 + 1, z0 + 1, octave);
+        return (a + (b - a) * fx) + ((c + (d - c) * fx) - (a + (b - a) * fx)) * fz;
+    }
+
+    private static double lattice(int x, int z, int octave) {
+        long h = x * 0x9E3779B97F4A7C15L ^ z * 0xC2B2AE3D27D4EB4FL ^ octave * 0x165667B19E3779F9L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return ((h >>> 11) * 0x1.0p-53) * 2 - 1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        write(new File(args[0]));
+    }
+}
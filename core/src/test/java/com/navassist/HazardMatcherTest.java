@@ -0,0 +1,103 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class HazardMatcherTest {
+
+    private final HazardMatcher matcher = HazardMatcher.of(Hazards.DEFAULT_VOCABULARY);
+
+    @Test
+    public void matchesWholeWordsOnly() {
+        assertEquals("person", name("Person"));
+        assertEquals("person", name("a person waiting"));
+        assertEquals("stairs", name("Step"));
+        assertNull(name("Personal computer"));
+        assertNull(name("Carpet"));
+        assertNull(name("Scarf"));
+        assertNull(name("Stepladder"));
+        assertNull(name("Doormat"));
+    }
+
+    @Test
+    public void caseAndPunctuationAreWordBreaks() {
+        assertEquals("vehicle", name("CAR"));
+        assertEquals("vehicle", name("(car)"));
+        assertEquals("vehicle", name("toy-car"));
+        assertEquals("door", name("  gate  "));
+    }
+
+    @Test
+    public void matchesPlurals() {
+        assertEquals("person", name("two persons"));
+        assertEquals("vehicle", name("Cars"));
+        assertEquals("vehicle", name("Buses"));
+        assertEquals("stairs", name("Staircases"));
+        assertEquals("hole", name("potholes"));
+    }
+
+    @Test
+    public void matchesMultiWordTerms() {
+        assertEquals("construction", name("Traffic cone"));
+        assertEquals("construction", name("traffic   cones"));
+        assertEquals("bump", name("Speed bump"));
+        assertNull(name("Speed"));
+        assertNull(name("Traffic"));
+        assertNull("words must be adjacent", name("speed of traffic"));
+    }
+
+    @Test
+    public void higherPriorityWinsWhenSeveralTermsMatch() {
+        assertEquals("vehicle", name("person next to a car"));
+        assertEquals("stairs", name("dog on the stairs"));
+        assertEquals(3, matcher.priorityOf("person next to a car"));
+        // Same priority: the earliest in the label
+        assertEquals("obstacle", name("pole by the gate"));
+        assertEquals("door", name("gate by the pole"));
+    }
+
+    @Test
+    public void nothingToMatch() {
+        assertEquals(HazardMatcher.NONE, matcher.match(null));
+        assertEquals(HazardMatcher.NONE, matcher.match(""));
+        assertEquals(HazardMatcher.NONE, matcher.match("Cup"));
+        assertFalse(matcher.isHazard("Table"));
+        assertEquals(0, matcher.priorityOf("Table"));
+    }
+
+    @Test
+    public void parsesCommentsAndBlankLines() throws IOException {
+        HazardMatcher m = HazardMatcher.parse(new StringReader(
+            "# walking hazards\n\n2 bollard: post  # short ones\n  \n3 drop\n"));
+        assertEquals(2, m.terms());
+        assertEquals("bollard", m.canonical(m.match("a Post")));
+        assertEquals(2, m.priorityOf("bollards"));
+        assertEquals(3, m.priorityOf("drop"));
+    }
+
+    @Test
+    public void rejectsAMalformedVocabulary() {
+        for (String bad : new String[] {"stairs\n", "x stairs: step\n", "0 stairs\n", "-1 hole: pit\n"}) {
+            try {
+                HazardMatcher.parse(new StringReader(bad));
+                fail("accepted " + bad.trim());
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().startsWith("line 1"));
+            }
+        }
+        try {
+            HazardMatcher.of("3 stairs\nstep\n");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().startsWith("line 2"));
+        }
+    }
+
+    private String name(String label) {
+        int t = matcher.match(label);
+        return t == HazardMatcher.NONE ? null : matcher.canonical(t);
+    }
+}
@@ -0,0 +1,42 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PipelineMetricsTest {
+
+    private static final String[] STAGES = {"ObjectStage", "HazardStage"};
+
+    @Test
+    public void cachedStageRunsAreCountedNotTimed() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        // The hazard model runs on one frame in three; the others reuse its result
+        for (int f = 0; f < 9; f++)
+            metrics.onFrameFinished(frame(20, f % 3 == 0 ? 120 : FrameTiming.CACHED));
+
+        String report = metrics.toString();
+        assertTrue(report, report.contains(" cached 6 "));
+        assertTrue(report, line(report, "Object").matches("Object\\s+20\\.\\d.*\\s9"));
+        assertTrue("only inference times: " + report,
+            line(report, "Hazard").matches("Hazard\\s+1[12]\\d\\.\\d.*\\s3"));
+    }
+
+    @Test
+    public void cachedStageIsShownAsSuch() {
+        assertEquals("parallel 0.0 ms [ObjectStage 20.0, HazardStage cached]",
+            frame(20, FrameTiming.CACHED).toString());
+    }
+
+    private static FrameTiming frame(long objectMs, long hazardMs) {
+        FrameTiming t = new FrameTiming(true, 0, STAGES);
+        t.stageNanos[0] = objectMs * 1_000_000L;
+        t.stageNanos[1] = hazardMs == FrameTiming.CACHED ? FrameTiming.CACHED : hazardMs * 1_000_000L;
+        return t;
+    }
+
+    private static String line(String report, String name) {
+        for (String l : report.split("\n")) if (l.startsWith(name)) return l.trim();
+        return "";
+    }
+}
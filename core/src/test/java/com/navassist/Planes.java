@@ -0,0 +1,80 @@
+package com.navassist;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Planes — Synthetic Y planes for the luma tests.
+ *
+ * Every plane is width × height samples in a buffer of rowStride bytes per
+ * row (pixel stride 1); the padding past width is filled with 0xFF so a
+ * reader that ignores the stride shows up as a wrong answer.
+ */
+final class Planes {
+
+    private Planes() {}
+
+    /** A plane of one flat value plus uniform noise of ± noise levels. */
+    static byte[] flat(int width, int height, int rowStride, int value, int noise, long seed) {
+        byte[] p = padded(height, rowStride);
+        Random rnd = new Random(seed);
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                p[r * rowStride + c] = luma(value + jitter(rnd, noise));
+        return p;
+    }
+
+    /**
+     * A textured "scene": cell × cell blocks of random brightness with
+     * per-pixel noise, different for every seed.
+     */
+    static byte[] blocks(int width, int height, int rowStride, int cell, long seed) {
+        byte[] p = padded(height, rowStride);
+        Random rnd = new Random(seed);
+        int cols = (width + cell - 1) / cell, rows = (height + cell - 1) / cell;
+        int[] level = new int[cols * rows];
+        for (int i = 0; i < level.length; i++) level[i] = 50 + rnd.nextInt(150);
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                p[r * rowStride + c] = luma(level[(r / cell) * cols + c / cell] + jitter(rnd, 20));
+        return p;
+    }
+
+    /** Adds delta to every sample inside the width (global exposure change). */
+    static byte[] shifted(byte[] plane, int width, int height, int rowStride, int delta) {
+        byte[] p = plane.clone();
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                p[r * rowStride + c] = luma((plane[r * rowStride + c] & 0xFF) + delta);
+        return p;
+    }
+
+    /** Adds uniform noise of ± noise levels to every sample inside the width. */
+    static byte[] noisy(byte[] plane, int width, int height, int rowStride, int noise, long seed) {
+        byte[] p = plane.clone();
+        Random rnd = new Random(seed);
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                p[r * rowStride + c] = luma((plane[r * rowStride + c] & 0xFF) + jitter(rnd, noise));
+        return p;
+    }
+
+    static ByteBuffer wrap(byte[] plane) {
+        return ByteBuffer.wrap(plane);
+    }
+
+    static byte luma(int v) {
+        return (byte) Math.max(0, Math.min(255, v));
+    }
+
+    private static byte[] padded(int height, int rowStride) {
+        byte[] p = new byte[height * rowStride];
+        Arrays.fill(p, (byte) 0xFF);
+        return p;
+    }
+
+    private static int jitter(Random rnd, int noise) {
+        return noise == 0 ? 0 : rnd.nextInt(2 * noise + 1) - noise;
+    }
+}
@@ -0,0 +1,97 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SceneChangeDetectorTest {
+
+    private static final int W = 640, H = 480, STRIDE = 672;
+
+    private final SceneChangeDetector detector = new SceneChangeDetector();
+    private final byte[] view = Planes.blocks(W, H, STRIDE, 40, 1);
+
+    @Test
+    public void firstFrameIsAlwaysAChange() {
+        assertTrue(update(view));
+        assertTrue("no reference until accept()", update(view));
+    }
+
+    @Test
+    public void identicalPlaneIsNoChange() {
+        reference(view);
+        assertFalse(update(view.clone()));
+        assertEquals(0f, detector.lastMeanDelta(), 0f);
+        assertEquals(0f, detector.lastMaxDelta(), 0f);
+    }
+
+    @Test
+    public void sensorNoiseIsNoChange() {
+        reference(view);
+        for (int seed = 0; seed < 5; seed++)
+            assertFalse("seed " + seed, update(Planes.noisy(view, W, H, STRIDE, 8, seed)));
+    }
+
+    @Test
+    public void exposureDriftIsNoChange() {
+        reference(view);
+        assertFalse(update(Planes.shifted(view, W, H, STRIDE, 30)));
+        assertFalse(update(Planes.shifted(view, W, H, STRIDE, -30)));
+        assertTrue(detector.lastMeanDelta() < 1f);
+    }
+
+    @Test
+    public void newViewIsAChange() {
+        reference(view);
+        assertTrue(update(Planes.blocks(W, H, STRIDE, 40, 2)));
+        assertTrue(detector.lastMeanDelta() > 6f);
+    }
+
+    @Test
+    public void objectInOneCornerIsAChange() {
+        reference(view);
+        byte[] p = view.clone();
+        for (int r = 0; r < H / 6; r++)
+            for (int c = 0; c < W / 8; c++)
+                p[r * STRIDE + c] = (byte) 250;
+        assertTrue(update(p));
+        assertTrue(detector.lastMaxDelta() > 40f);
+    }
+
+    @Test
+    public void slowPanAccumulatesAgainstTheAcceptedFrame() {
+        reference(view);
+        // Each step is small; compared with the accepted frame they add up
+        assertFalse(update(panned(2)));
+        boolean changed = false;
+        for (int shift = 4; shift <= 40 && !changed; shift += 2) changed = update(panned(shift));
+        assertTrue(changed);
+    }
+
+    @Test
+    public void rowPaddingIsNotSampled() {
+        reference(view);
+        byte[] p = view.clone();
+        for (int r = 0; r < H; r++)
+            for (int c = W; c < STRIDE; c++)
+                p[r * STRIDE + c] = 0;
+        assertFalse(update(p));
+    }
+
+    private void reference(byte[] plane) {
+        update(plane);
+        detector.accept();
+    }
+
+    private boolean update(byte[] plane) {
+        return detector.update(Planes.wrap(plane), W, H, STRIDE, 1);
+    }
+
+    private byte[] panned(int dx) {
+        byte[] p = view.clone();
+        for (int r = 0; r < H; r++)
+            for (int c = 0; c < W; c++)
+                p[r * STRIDE + c] = view[r * STRIDE + Math.min(W - 1, c + dx)];
+        return p;
+    }
+}
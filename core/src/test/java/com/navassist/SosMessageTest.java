@@ -0,0 +1,22 @@
+package com.navassist;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SosMessageTest {
+
+    @Test
+    public void buildsTheGuardianText() {
+        assertEquals("🚨 SOS EMERGENCY!\n"
+                + "Asha needs help urgently!\n"
+                + "📍 Live Location: https://maps.google.com/?q=12.5,77.25\n"
+                + "📱 Sent via NavAssist app",
+            SosMessage.build("Asha", 12.5, 77.25));
+    }
+
+    @Test
+    public void missingNameStillSends() {
+        assertTrue(SosMessage.build(null, 0, 0).startsWith("🚨 SOS EMERGENCY!\n needs help urgently!\n"));
+    }
+}